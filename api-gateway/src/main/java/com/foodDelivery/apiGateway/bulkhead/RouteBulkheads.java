@@ -0,0 +1,65 @@
+package com.foodDelivery.apiGateway.bulkhead;
+
+import com.foodDelivery.apiGateway.filters.CompletingServerResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Gives every route its own Resilience4j semaphore bulkhead, configured under
+ * {@code resilience4j.bulkhead.instances.<routeId>}, so a hanging upstream can hold at most its route's
+ * share of request threads, including while it trickles out a response body. Calls over the limit are answered with 503 instead of waiting for a permit.
+ * Occupancy is exported by Resilience4j as {@code resilience4j.bulkhead.*}.
+ */
+@Component
+@Slf4j
+public class RouteBulkheads {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    public RouteBulkheads(BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+                          @Value("${gateway.bulkhead.enabled:true}") boolean enabled) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> isolate(String routeId) {
+        if (!enabled) {
+            return (request, next) -> next.handle(request);
+        }
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(routeId);
+        Counter rejected = Counter.builder("gateway.bulkhead.rejected")
+                .description("Requests rejected because the route's bulkhead was full")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        log.info("Bulkhead for {} allows {} concurrent calls", routeId,
+                bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+
+        return (request, next) -> {
+            if (!bulkhead.tryAcquirePermission()) {
+                rejected.increment();
+                return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Service unavailable. Please try again later.");
+            }
+            ServerResponse response;
+            try {
+                response = next.handle(request);
+            } catch (Exception e) {
+                bulkhead.onComplete();
+                throw e;
+            }
+            // Held until the body has been streamed, not just until the upstream sent its headers
+            return new CompletingServerResponse(response, failure -> bulkhead.onComplete());
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.foodDelivery.apiGateway.cache;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Writes the body straight through to the client while keeping a copy of it, up to {@code limit} bytes.
+ * Unlike {@code ContentCachingResponseWrapper} nothing is held back from the client.
+ */
+class BodyCapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private boolean overflowed;
+    private ServletOutputStream outputStream;
+
+    BodyCapturingResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.limit = limit;
+    }
+
+    /**
+     * @return the captured body, or null if it was too large or not written as bytes
+     */
+    byte[] capturedBody() {
+        return overflowed ? null : copy.toByteArray();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        overflowed = true;
+        return super.getWriter();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    capture(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    capture(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    target.setWriteListener(writeListener);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    private void capture(byte[] b, int off, int len) {
+        if (overflowed) {
+            return;
+        }
+        if (copy.size() + len > limit) {
+            overflowed = true;
+            copy.reset();
+            return;
+        }
+        copy.write(b, off, len);
+    }
+}
@@ -0,0 +1,59 @@
+package com.foodDelivery.apiGateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A complete upstream response held by the {@link ResponseCacheStore} or shared between coalesced requests.
+ */
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, String etag,
+                             long storedAtMillis, long expiresAtMillis) {
+
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.CONNECTION.toLowerCase(), "keep-alive",
+            HttpHeaders.AGE.toLowerCase());
+
+    static CachedResponse of(ServerResponse response, byte[] body, long nowMillis, long ttlMillis) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().forEach((name, values) -> {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        headers.setContentLength(body.length);
+        return new CachedResponse(response.statusCode().value(), HttpHeaders.readOnlyHttpHeaders(headers), body,
+                headers.getETag(), nowMillis, nowMillis + ttlMillis);
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < expiresAtMillis;
+    }
+
+    public CachedResponse renewed(long nowMillis, long ttlMillis) {
+        return new CachedResponse(status, headers, body, etag, nowMillis, nowMillis + ttlMillis);
+    }
+
+    ServerResponse toServerResponse(long ageSeconds) {
+        return ServerResponse.status(status)
+                .headers(target -> target.putAll(headers))
+                .header(HttpHeaders.AGE, Long.toString(ageSeconds))
+                .build((servletRequest, servletResponse) -> {
+                    servletResponse.getOutputStream().write(body);
+                    return null;
+                });
+    }
+
+    long sizeInBytes() {
+        long size = body.length + 128;
+        for (var header : headers.entrySet()) {
+            size += header.getKey().length();
+            for (String value : header.getValue()) {
+                size += value.length();
+            }
+        }
+        return size;
+    }
+}
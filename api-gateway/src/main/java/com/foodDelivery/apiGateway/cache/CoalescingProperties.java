@@ -0,0 +1,36 @@
+package com.foodDelivery.apiGateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in request coalescing for GET routes. Only route ids listed under {@code routes} are coalesced.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    /** How long a waiting request follows an in-flight call before making its own. */
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    /** Responses larger than this are not shared; waiting requests then call the upstream themselves. */
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        /**
+         * Only coalesce requests carrying the same Authorization header. When off, callers with different
+         * tokens still collapse onto one call, but only share its response when the upstream marks it public.
+         */
+        private boolean varyOnAuthorization;
+    }
+}
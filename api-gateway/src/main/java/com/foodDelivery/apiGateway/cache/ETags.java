@@ -0,0 +1,39 @@
+package com.foodDelivery.apiGateway.cache;
+
+import java.util.List;
+
+/**
+ * If-None-Match evaluation shared by the gateway's own conditional responses.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Weak comparison (RFC 9110 §13.1.2) of an entity tag against If-None-Match header values, each of
+     * which may be a comma-separated list. The compressor hands out {@code W/} variants of upstream tags,
+     * so those must match too.
+     *
+     * @param ifNoneMatch the request's If-None-Match values, possibly empty
+     */
+    public static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String header : ifNoneMatch) {
+            for (String tag : header.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
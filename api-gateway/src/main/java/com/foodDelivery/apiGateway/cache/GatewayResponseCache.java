@@ -0,0 +1,252 @@
+package com.foodDelivery.apiGateway.cache;
+
+import com.foodDelivery.apiGateway.filters.DelegatingServerResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Caches successful GET responses of the routes configured under {@code gateway.cache.routes}.
+ * Upstream {@code Cache-Control} (no-store, private, no-cache, max-age, s-maxage) is honoured; answers
+ * to requests carrying Authorization are only stored when marked public (or when the route keys entries
+ * per caller). Accept and Accept-Encoding are part of the key; responses varying on other headers are
+ * not cached. Stale
+ * entries with an ETag are revalidated with {@code If-None-Match}, and clients sending a matching
+ * {@code If-None-Match} get a 304 straight from the gateway.
+ */
+@Component
+@Slf4j
+public class GatewayResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCacheStore store;
+    private final MeterRegistry meterRegistry;
+
+    public GatewayResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.store = new ResponseCacheStore(properties.getMaxSize().toBytes());
+        Gauge.builder("gateway.cache.size", store, ResponseCacheStore::bytes)
+                .description("Bytes held by the gateway response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", store, ResponseCacheStore::size).register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.evictions", store, ResponseCacheStore::evictions).register(meterRegistry);
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> cache(String routeId) {
+        ResponseCacheProperties.Route route = properties.getRoutes().get(routeId);
+        if (!properties.isEnabled() || route == null) {
+            return (request, next) -> next.handle(request);
+        }
+        Counter hits = counter(routeId, "hit");
+        Counter misses = counter(routeId, "miss");
+        Counter revalidated = counter(routeId, "revalidated");
+        long ttlMillis = route.getTtl().toMillis();
+        int maxEntryBytes = (int) properties.getMaxEntrySize().toBytes();
+
+        return (request, next) -> {
+            if (request.method() != HttpMethod.GET) {
+                return next.handle(request);
+            }
+            String key = key(routeId, request, route.isVaryOnAuthorization());
+            long now = System.currentTimeMillis();
+            CachedResponse cached = store.get(key);
+
+            if (cached != null && cached.isFresh(now)) {
+                hits.increment();
+                return fromCache(cached, request, now);
+            }
+
+            boolean revalidating = cached != null && cached.etag() != null;
+            ServerRequest upstreamRequest = request;
+            if (revalidating) {
+                upstreamRequest = ServerRequest.from(request)
+                        .headers(headers -> headers.setIfNoneMatch(cached.etag()))
+                        .build();
+            }
+            ServerResponse response = next.handle(upstreamRequest);
+
+            if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                if (!revalidating) {
+                    // Answers the client's own validator, says nothing about the cached copy
+                    misses.increment();
+                    return response;
+                }
+                revalidated.increment();
+                CachedResponse renewed = cached.renewed(now, ttl(response.headers(), ttlMillis));
+                store.put(key, renewed);
+                return fromCache(renewed, request, now);
+            }
+            misses.increment();
+            if (cached != null) {
+                store.remove(key);
+            }
+            long responseTtl = ttl(response.headers(), ttlMillis);
+            // Nothing to reuse if the entry is stale on arrival and cannot be revalidated
+            if (!isCacheable(request, response, route, maxEntryBytes)
+                    || (responseTtl <= 0 && response.headers().getETag() == null)) {
+                return response;
+            }
+            return capturing(response, key, now, responseTtl, maxEntryBytes);
+        };
+    }
+
+    private ServerResponse capturing(ServerResponse response, String key, long now, long ttlMillis, int maxEntryBytes) {
+        return new DelegatingServerResponse(response) {
+            @Override
+            public ModelAndView writeTo(HttpServletRequest servletRequest, HttpServletResponse servletResponse,
+                                        Context context) throws ServletException, IOException {
+                BodyCapturingResponseWrapper capture = new BodyCapturingResponseWrapper(servletResponse, maxEntryBytes);
+                ModelAndView modelAndView = delegate.writeTo(servletRequest, capture, context);
+                byte[] body = capture.capturedBody();
+                if (body != null) {
+                    store.put(key, CachedResponse.of(delegate, body, now, ttlMillis));
+                }
+                return modelAndView;
+            }
+        };
+    }
+
+    private static ServerResponse fromCache(CachedResponse cached, ServerRequest request, long now) {
+        long age = Math.max(0, (now - cached.storedAtMillis()) / 1000);
+        if (ETags.matches(request.headers().header(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(cached.etag())
+                    .header(HttpHeaders.AGE, Long.toString(age))
+                    .build();
+        }
+        return cached.toServerResponse(age);
+    }
+
+    private static boolean isCacheable(ServerRequest request, ServerResponse response,
+                                       ResponseCacheProperties.Route route, int maxEntryBytes) {
+        HttpHeaders headers = response.headers();
+        if (response.statusCode().value() != HttpStatus.OK.value()
+                || !response.cookies().isEmpty()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || !isVaryKeyed(headers, route.isVaryOnAuthorization())
+                || headers.getContentLength() > maxEntryBytes) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        String directives = cacheControl != null ? cacheControl.toLowerCase() : "";
+        if (directives.contains("no-store") || (directives.contains("private") && !route.isVaryOnAuthorization())) {
+            return false;
+        }
+        // RFC 9111 §3.5: a shared cache only stores answers to authorized requests the origin marked as shareable
+        return route.isVaryOnAuthorization()
+                || request.headers().header(HttpHeaders.AUTHORIZATION).isEmpty()
+                || isExplicitlyShareable(directives);
+    }
+
+    static boolean isExplicitlyShareable(String directives) {
+        for (String directive : directives.split(",")) {
+            String name = directive.trim();
+            if (name.equals("public") || name.equals("must-revalidate") || name.startsWith("s-maxage=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether every header the response varies on is part of {@link #key}: Accept and Accept-Encoding always,
+     * Authorization when the route keys on it.
+     */
+    static boolean isVaryKeyed(HttpHeaders headers, boolean varyOnAuthorization) {
+        for (String vary : headers.getVary()) {
+            String name = vary.trim();
+            if (!name.equalsIgnoreCase(HttpHeaders.ACCEPT)
+                    && !name.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)
+                    && !(varyOnAuthorization && name.equalsIgnoreCase(HttpHeaders.AUTHORIZATION))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * TTL from s-maxage or max-age, capped by the route TTL; no-cache means every use is revalidated.
+     */
+    static long ttl(HttpHeaders headers, long routeTtlMillis) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return routeTtlMillis;
+        }
+        long maxAge = -1;
+        for (String directive : cacheControl.toLowerCase().split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.equals("no-cache")) {
+                return 0;
+            }
+            if (trimmed.startsWith("s-maxage=")) {
+                maxAge = parseSeconds(trimmed.substring("s-maxage=".length()));
+                break;
+            }
+            if (trimmed.startsWith("max-age=")) {
+                maxAge = parseSeconds(trimmed.substring("max-age=".length()));
+            }
+        }
+        return maxAge < 0 ? routeTtlMillis : Math.min(maxAge * 1000, routeTtlMillis);
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static String key(String routeId, ServerRequest request, boolean varyOnAuthorization) {
+        String query = request.uri().getRawQuery();
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.uri().getRawPath());
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        // Upstream encodings pass through, so a gzip body must only be replayed to clients that accept gzip
+        key.append(' ').append(String.join(",", request.headers().header(HttpHeaders.ACCEPT)))
+                .append(' ').append(String.join(",", request.headers().header(HttpHeaders.ACCEPT_ENCODING)));
+        if (varyOnAuthorization) {
+            String authorization = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+            key.append(' ').append(authorization != null ? digest(authorization) : "-");
+        }
+        return key.toString();
+    }
+
+    private static String digest(String value) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.cache.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
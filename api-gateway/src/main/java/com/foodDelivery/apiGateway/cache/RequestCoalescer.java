@@ -0,0 +1,166 @@
+package com.foodDelivery.apiGateway.cache;
+
+import com.foodDelivery.apiGateway.filters.DelegatingServerResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight for identical GETs on the routes configured under {@code gateway.coalescing.routes}.
+ * The first request for a key goes upstream; identical requests arriving while it is in flight wait
+ * for it and are answered with a copy of its response. Requests are identical when their Accept and
+ * Accept-Encoding headers match, and their Authorization too on routes that opt in. On other routes callers
+ * with different tokens share a key, so an answer to an authorized request is only handed to the others
+ * when it is explicitly shareable (public, s-maxage). Anything that cannot be shared (non-200, cookies,
+ * private/no-store, Vary on other headers, oversized body, failure) makes the waiting requests go upstream
+ * on their own.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final CoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.inflight", inFlight, Map::size)
+                .description("Distinct upstream GETs currently being shared")
+                .register(meterRegistry);
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> coalesce(String routeId) {
+        CoalescingProperties.Route route = properties.getRoutes().get(routeId);
+        if (!properties.isEnabled() || route == null) {
+            return (request, next) -> next.handle(request);
+        }
+        Counter leaders = counter(routeId, "leader");
+        Counter collapsed = counter(routeId, "collapsed");
+        long maxWaitMillis = properties.getMaxWait().toMillis();
+        int maxBodyBytes = (int) properties.getMaxBodySize().toBytes();
+
+        return (request, next) -> {
+            if (request.method() != HttpMethod.GET) {
+                return next.handle(request);
+            }
+            String key = GatewayResponseCache.key(routeId, request, route.isVaryOnAuthorization());
+            CompletableFuture<CachedResponse> call = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, call);
+
+            if (existing != null) {
+                CachedResponse shared = await(key, existing, maxWaitMillis);
+                if (shared != null) {
+                    collapsed.increment();
+                    return shared.toServerResponse(0);
+                }
+                return next.handle(request);
+            }
+
+            leaders.increment();
+            ServerResponse response;
+            try {
+                response = next.handle(request);
+            } catch (Exception e) {
+                finish(key, call, null);
+                throw e;
+            }
+            if (!isShareable(request, response, route, maxBodyBytes)) {
+                finish(key, call, null);
+                return response;
+            }
+            return sharing(response, key, call, maxBodyBytes);
+        };
+    }
+
+    private ServerResponse sharing(ServerResponse response, String key, CompletableFuture<CachedResponse> call,
+                                   int maxBodyBytes) {
+        return new DelegatingServerResponse(response) {
+            @Override
+            public ModelAndView writeTo(HttpServletRequest servletRequest, HttpServletResponse servletResponse,
+                                        Context context) throws ServletException, IOException {
+                BodyCapturingResponseWrapper capture = new BodyCapturingResponseWrapper(servletResponse, maxBodyBytes);
+                CachedResponse shared = null;
+                try {
+                    ModelAndView modelAndView = delegate.writeTo(servletRequest, capture, context);
+                    byte[] body = capture.capturedBody();
+                    if (body != null) {
+                        long now = System.currentTimeMillis();
+                        shared = CachedResponse.of(delegate, body, now, 0);
+                    }
+                    return modelAndView;
+                } finally {
+                    finish(key, call, shared);
+                }
+            }
+        };
+    }
+
+    private void finish(String key, CompletableFuture<CachedResponse> call, CachedResponse shared) {
+        // Unpublish first so requests arriving from now on start a fresh call
+        inFlight.remove(key, call);
+        call.complete(shared);
+    }
+
+    private CachedResponse await(String key, CompletableFuture<CachedResponse> call, long maxWaitMillis) {
+        try {
+            return call.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The leader never wrote its response; stop routing new requests to it
+            inFlight.remove(key, call);
+            log.warn("Gave up waiting on in-flight request for {}", key);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private static boolean isShareable(ServerRequest request, ServerResponse response,
+                                       CoalescingProperties.Route route, int maxBodyBytes) {
+        HttpHeaders headers = response.headers();
+        String cacheControl = headers.getCacheControl();
+        String directives = cacheControl != null ? cacheControl.toLowerCase() : "";
+        return response.statusCode().value() == HttpStatus.OK.value()
+                && response.cookies().isEmpty()
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && !directives.contains("no-store")
+                && (!directives.contains("private") || route.isVaryOnAuthorization())
+                && GatewayResponseCache.isVaryKeyed(headers, route.isVaryOnAuthorization())
+                && headers.getContentLength() <= maxBodyBytes
+                // Same rule as the shared cache: per-caller answers stay with their caller
+                && (route.isVaryOnAuthorization()
+                    || request.headers().header(HttpHeaders.AUTHORIZATION).isEmpty()
+                    || GatewayResponseCache.isExplicitlyShareable(directives));
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.coalescing.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
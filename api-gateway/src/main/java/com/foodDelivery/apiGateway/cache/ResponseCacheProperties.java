@@ -0,0 +1,38 @@
+package com.foodDelivery.apiGateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in response caching for GET routes. Only route ids listed under {@code routes} are cached.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Total memory the cached bodies and headers may take. */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /** Larger responses are streamed through without being cached. */
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        /** Used when the upstream sends no max-age, and caps the one it does send. */
+        private Duration ttl = Duration.ofSeconds(30);
+        /**
+         * Keep a separate entry per Authorization header, for responses that differ per caller. Without it,
+         * answers to authorized requests are only cached when the upstream marks them public.
+         */
+        private boolean varyOnAuthorization;
+    }
+}
@@ -0,0 +1,98 @@
+package com.foodDelivery.apiGateway.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory-bounded LRU store of cached responses. Size is accounted per entry from its body and headers, and
+ * when the total goes over budget the least recently used entries are evicted until it fits again. Entries
+ * and their recency order live in one access-ordered map behind a lock, so the two cannot drift apart.
+ */
+class ResponseCacheStore {
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long maxBytes;
+    private long bytes;
+    private long evictions;
+
+    ResponseCacheStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    CachedResponse get(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(String key, CachedResponse response) {
+        long size = sizeOf(key, response);
+        if (size > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            CachedResponse previous = entries.put(key, response);
+            bytes += previous != null ? size - sizeOf(key, previous) : size;
+
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CachedResponse> entry = eldest.next();
+                bytes -= sizeOf(entry.getKey(), entry.getValue());
+                eldest.remove();
+                evictions++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.lock();
+        try {
+            CachedResponse removed = entries.remove(key);
+            if (removed != null) {
+                bytes -= sizeOf(key, removed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long evictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long sizeOf(String key, CachedResponse response) {
+        return key.length() * 2L + response.sizeInBytes();
+    }
+}
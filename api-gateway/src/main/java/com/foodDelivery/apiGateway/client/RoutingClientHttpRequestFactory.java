@@ -0,0 +1,104 @@
+package com.foodDelivery.apiGateway.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands each proxied request to the client configured for its upstream, so every upstream keeps its
+ * own keep-alive pool and connection limit. Requests for hosts no upstream claims share the default client.
+ */
+@Slf4j
+public class RoutingClientHttpRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+
+    private final Map<String, ClientHttpRequestFactory> upstreams;
+    private final ClientHttpRequestFactory defaultFactory;
+    private final List<AutoCloseable> resources;
+    private final Map<String, ClientHttpRequestFactory> byAuthority = new ConcurrentHashMap<>();
+    private final Set<String> fixed = new HashSet<>();
+    private final Map<String, Set<String>> resolved = new HashMap<>();
+
+    public RoutingClientHttpRequestFactory(Map<String, ClientHttpRequestFactory> upstreams,
+                                           ClientHttpRequestFactory defaultFactory,
+                                           List<AutoCloseable> resources) {
+        this.upstreams = Map.copyOf(upstreams);
+        this.defaultFactory = defaultFactory;
+        this.resources = List.copyOf(resources);
+    }
+
+    /**
+     * Sends requests for {@code authority} (host:port) through the named upstream's client.
+     */
+    public synchronized void bind(String authority, String upstream) {
+        byAuthority.put(authority, factory(upstream));
+        fixed.add(authority);
+    }
+
+    /**
+     * Sends requests for exactly {@code authorities}, the upstream's currently resolved replicas, through its
+     * client. Authorities resolved on an earlier call and gone now fall back to the default client, so replica
+     * churn does not grow the table; ones passed to {@link #bind} stay.
+     */
+    public synchronized void rebind(String upstream, Collection<String> authorities) {
+        ClientHttpRequestFactory factory = factory(upstream);
+        Set<String> current = Set.copyOf(authorities);
+        current.forEach(authority -> byAuthority.put(authority, factory));
+        for (String authority : resolved.getOrDefault(upstream, Set.of())) {
+            if (!current.contains(authority) && !fixed.contains(authority)) {
+                byAuthority.remove(authority, factory);
+            }
+        }
+        resolved.put(upstream, current);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        return byAuthority.getOrDefault(authority(uri), defaultFactory).createRequest(uri, httpMethod);
+    }
+
+    public boolean hasUpstream(String upstream) {
+        return upstreams.containsKey(upstream);
+    }
+
+    private ClientHttpRequestFactory factory(String upstream) {
+        ClientHttpRequestFactory factory = upstreams.get(upstream);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown upstream client: " + upstream);
+        }
+        return factory;
+    }
+
+    public static String authority(URI uri) {
+        return uri.getHost() + ":" + port(uri);
+    }
+
+    public static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    @Override
+    public void destroy() {
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to close upstream client resource: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.foodDelivery.apiGateway.client;
+
+import com.foodDelivery.apiGateway.config.UpstreamClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Creates the client for a single upstream. HTTP/1.1 upstreams get a bounded Apache connection pool with
+ * idle eviction and pool metrics; HTTP/2 upstreams multiplex over the JDK client instead.
+ */
+public class UpstreamClientFactory {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 200;
+    private static final Duration DEFAULT_IDLE_EVICTION = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final List<AutoCloseable> resources;
+
+    public UpstreamClientFactory(MeterRegistry meterRegistry, ExecutorService executor, List<AutoCloseable> resources) {
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.resources = resources;
+    }
+
+    public ClientHttpRequestFactory create(String name, UpstreamClientProperties.Settings settings) {
+        return Boolean.TRUE.equals(settings.getHttp2()) ? http2(settings) : pooled(name, settings);
+    }
+
+    private ClientHttpRequestFactory pooled(String name, UpstreamClientProperties.Settings settings) {
+        int maxConnections = settings.getMaxConnections() != null ? settings.getMaxConnections() : DEFAULT_MAX_CONNECTIONS;
+        ConnectionConfig.Builder connectionConfig = ConnectionConfig.custom();
+        if (settings.getConnectTimeout() != null) {
+            connectionConfig.setConnectTimeout(Timeout.of(settings.getConnectTimeout()));
+        }
+        if (settings.getReadTimeout() != null) {
+            connectionConfig.setSocketTimeout(Timeout.of(settings.getReadTimeout()));
+        }
+
+        // Every upstream is a single route, so the per-route limit is the upstream's limit
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(connectionConfig.build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, name).bindTo(meterRegistry);
+        Timer leaseWait = Timer.builder("gateway.upstream.pool.wait")
+                .description("Time spent waiting to lease a pooled upstream connection")
+                .tags(Tags.of("upstream", name))
+                .register(meterRegistry);
+
+        Duration idleEviction = settings.getIdleEviction() != null ? settings.getIdleEviction() : DEFAULT_IDLE_EVICTION;
+        IdleConnectionEvictor evictor = new IdleConnectionEvictor(pool, TimeValue.of(idleEviction), TimeValue.of(idleEviction));
+        evictor.start();
+        resources.add(evictor::shutdown);
+
+        RequestConfig.Builder requestConfig = RequestConfig.custom();
+        if (settings.getReadTimeout() != null) {
+            requestConfig.setResponseTimeout(Timeout.of(settings.getReadTimeout()));
+        }
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(new TimedConnectionManager(pool, leaseWait))
+                .setDefaultRequestConfig(requestConfig.build())
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                // Pass bodies through as sent: no transparent gunzip, so Content-Length/Encoding survive
+                .disableContentCompression()
+                .build();
+        resources.add(httpClient);
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    private ClientHttpRequestFactory http2(UpstreamClientProperties.Settings settings) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        if (settings.getConnectTimeout() != null) {
+            builder.connectTimeout(settings.getConnectTimeout());
+        }
+        HttpClient httpClient = builder.build();
+        resources.add(httpClient);
+
+        JdkClientHttpRequestFactory requestFactory = executor != null
+                ? new JdkClientHttpRequestFactory(httpClient, executor)
+                : new JdkClientHttpRequestFactory(httpClient);
+        if (settings.getReadTimeout() != null) {
+            requestFactory.setReadTimeout(settings.getReadTimeout());
+        }
+        return requestFactory;
+    }
+}
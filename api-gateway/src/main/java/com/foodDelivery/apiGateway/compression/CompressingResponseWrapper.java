@@ -0,0 +1,238 @@
+package com.foodDelivery.apiGateway.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compresses the body on its way to the client once it is known to be worth it: the first
+ * {@code minSize} bytes are held back until the body is known to be at least that large (or its
+ * Content-Length says so), and responses that are already encoded or of a non-compressible type
+ * pass through untouched. The upstream Content-Length is only forwarded for uncompressed bodies.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final ContentEncoding encoding;
+    private final DeflaterPool pool;
+    private final int minSize;
+    private final Predicate<String> compressibleType;
+
+    private final byte[] head;
+    private int headLength;
+    private long contentLength = -1;
+    private boolean decided;
+    private OutputStream sink;
+    private Deflater deflater;
+    private DeflaterOutputStream compressor;
+    private ServletOutputStream outputStream;
+
+    CompressingResponseWrapper(HttpServletResponse response, ContentEncoding encoding, DeflaterPool pool,
+                               int minSize, Predicate<String> compressibleType) {
+        super(response);
+        this.encoding = encoding;
+        this.pool = pool;
+        this.minSize = minSize;
+        this.compressibleType = compressibleType;
+        this.head = new byte[minSize];
+    }
+
+    boolean compressed() {
+        return compressor != null;
+    }
+
+    /**
+     * @return bytes fed to and produced by the deflater, valid after {@link #finish()} and before release
+     */
+    long bytesIn() {
+        return deflater.getBytesRead();
+    }
+
+    long bytesOut() {
+        return deflater.getBytesWritten();
+    }
+
+    void finish() throws IOException {
+        if (!decided) {
+            decide(true, true);
+        }
+        if (compressor != null) {
+            compressor.finish();
+        }
+    }
+
+    void release() {
+        if (deflater != null) {
+            pool.release(deflater);
+            deflater = null;
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (!decided) {
+            contentLength = len;
+        } else if (compressor == null) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (!decided) {
+            decide(false, false);
+        }
+        if (sink != null) {
+            sink.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        // Character output is left alone; proxied bodies are always written as bytes
+        if (!decided) {
+            decide(false, false);
+        }
+        return super.getWriter();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (!decided) {
+                        if (contentLength < 0 && headLength + len < minSize) {
+                            System.arraycopy(b, off, head, headLength, len);
+                            headLength += len;
+                            return;
+                        }
+                        decide(true, false);
+                    }
+                    sink().write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    // A flushing upstream (e.g. a stream of events) must not stall behind the held-back head
+                    if (!decided) {
+                        decide(true, false);
+                    }
+                    sink().flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    target.setWriteListener(writeListener);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    private void decide(boolean allowCompression, boolean complete) throws IOException {
+        decided = true;
+        long size = contentLength >= 0 ? contentLength : (complete ? headLength : Long.MAX_VALUE);
+        if (allowCompression && size >= minSize && isCompressible()) {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding.token());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String etag = response.getHeader(HttpHeaders.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                // The compressed bytes are a different representation of the same resource
+                response.setHeader(HttpHeaders.ETAG, "W/" + etag);
+            }
+            deflater = pool.borrow();
+            OutputStream target = super.getOutputStream();
+            compressor = encoding == ContentEncoding.GZIP
+                    ? new GzipDeflaterOutputStream(target, deflater)
+                    : new DeflaterOutputStream(target, deflater, 8192, true);
+            sink = compressor;
+        } else {
+            if (contentLength >= 0) {
+                super.setContentLengthLong(contentLength);
+            }
+        }
+        if (headLength > 0) {
+            sink().write(head, 0, headLength);
+        }
+    }
+
+    // Fetched lazily so that a response written through getWriter() never touches the output stream
+    private OutputStream sink() throws IOException {
+        if (sink == null) {
+            sink = super.getOutputStream();
+        }
+        return sink;
+    }
+
+    private boolean isCompressible() {
+        int status = getStatus();
+        return status >= 200 && status < 300 && status != 204 && status != 206
+                && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                && getContentType() != null
+                && compressibleType.test(getContentType());
+    }
+}
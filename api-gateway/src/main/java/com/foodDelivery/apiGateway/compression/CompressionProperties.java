@@ -0,0 +1,32 @@
+package com.foodDelivery.apiGateway.compression;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Edge compression of proxied responses for clients that send {@code Accept-Encoding}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+
+    /** Smaller bodies are sent as-is; compressing them costs more than it saves. */
+    private DataSize minResponseSize = DataSize.ofKilobytes(1);
+
+    /** Deflate level, 1 (fastest) to 9 (smallest). */
+    private int level = 6;
+
+    /** Idle deflaters kept per encoding for reuse. */
+    private int poolSize = 64;
+
+    /** Content types that are compressed; wildcards such as {@code text/*} are allowed. */
+    private List<String> mimeTypes = new ArrayList<>(List.of(
+            "application/json", "application/*+json", "application/xml", "application/javascript",
+            "text/*", "image/svg+xml"));
+}
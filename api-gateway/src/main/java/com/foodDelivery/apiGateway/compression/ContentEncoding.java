@@ -0,0 +1,65 @@
+package com.foodDelivery.apiGateway.compression;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodings the gateway can produce, in order of preference.
+ */
+enum ContentEncoding {
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    String token() {
+        return token;
+    }
+
+    /**
+     * Picks the preferred encoding the client accepts, honouring {@code q=0} exclusions and {@code *}.
+     *
+     * @return null if the client accepts neither
+     */
+    static ContentEncoding negotiate(List<String> acceptEncoding) {
+        boolean gzip = false;
+        boolean deflate = false;
+        Boolean wildcard = null;
+        for (String header : acceptEncoding) {
+            for (String entry : header.split(",")) {
+                String[] parts = entry.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                boolean accepted = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        try {
+                            accepted = Double.parseDouble(param.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            accepted = false;
+                        }
+                    }
+                }
+                switch (coding) {
+                    case "gzip", "x-gzip" -> gzip = accepted;
+                    case "deflate" -> deflate = accepted;
+                    case "*" -> wildcard = accepted;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (gzip || (Boolean.TRUE.equals(wildcard) && !mentions(acceptEncoding, "gzip"))) {
+            return GZIP;
+        }
+        return deflate ? DEFLATE : null;
+    }
+
+    private static boolean mentions(List<String> acceptEncoding, String coding) {
+        return acceptEncoding.stream().anyMatch(header -> header.toLowerCase(Locale.ROOT).contains(coding));
+    }
+}
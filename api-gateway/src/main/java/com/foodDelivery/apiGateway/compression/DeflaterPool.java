@@ -0,0 +1,33 @@
+package com.foodDelivery.apiGateway.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Reuses {@link Deflater}s, whose native zlib state is costly to allocate and free per response.
+ */
+class DeflaterPool {
+
+    private final BlockingQueue<Deflater> idle;
+    private final int level;
+    private final boolean nowrap;
+
+    DeflaterPool(int size, int level, boolean nowrap) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, size));
+        this.level = level;
+        this.nowrap = nowrap;
+    }
+
+    Deflater borrow() {
+        Deflater deflater = idle.poll();
+        return deflater != null ? deflater : new Deflater(level, nowrap);
+    }
+
+    void release(Deflater deflater) {
+        deflater.reset();
+        if (!idle.offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
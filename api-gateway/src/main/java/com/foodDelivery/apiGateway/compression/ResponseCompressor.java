@@ -0,0 +1,110 @@
+package com.foodDelivery.apiGateway.compression;
+
+import com.foodDelivery.apiGateway.filters.DelegatingServerResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compresses responses at the edge with gzip or deflate, whichever the client prefers. Bodies below
+ * {@code min-response-size}, types outside {@code mime-types} and responses the upstream already
+ * encoded are passed through as-is. Deflaters are pooled rather than created per response.
+ */
+@Component
+public class ResponseCompressor {
+
+    private final CompressionProperties properties;
+    private final List<MediaType> compressibleTypes;
+    private final Map<ContentEncoding, DeflaterPool> pools = new EnumMap<>(ContentEncoding.class);
+    private final Map<ContentEncoding, Counter> responses = new EnumMap<>(ContentEncoding.class);
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+
+    public ResponseCompressor(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.compressibleTypes = MediaType.parseMediaTypes(properties.getMimeTypes());
+        // gzip carries its own framing around a raw deflate stream; "deflate" means zlib-wrapped
+        pools.put(ContentEncoding.GZIP, new DeflaterPool(properties.getPoolSize(), properties.getLevel(), true));
+        pools.put(ContentEncoding.DEFLATE, new DeflaterPool(properties.getPoolSize(), properties.getLevel(), false));
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            responses.put(encoding, Counter.builder("gateway.compression.responses")
+                    .tag("encoding", encoding.token())
+                    .register(meterRegistry));
+        }
+        this.bytesIn = Counter.builder("gateway.compression.bytes")
+                .description("Response bytes before and after compression")
+                .tag("stage", "in")
+                .register(meterRegistry);
+        this.bytesOut = Counter.builder("gateway.compression.bytes")
+                .description("Response bytes before and after compression")
+                .tag("stage", "out")
+                .register(meterRegistry);
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> compress() {
+        if (!properties.isEnabled()) {
+            return (request, next) -> next.handle(request);
+        }
+        int minSize = (int) properties.getMinResponseSize().toBytes();
+
+        return (request, next) -> {
+            ServerResponse response = next.handle(request);
+            if (request.method() == HttpMethod.HEAD) {
+                return response;
+            }
+            ContentEncoding encoding = ContentEncoding.negotiate(request.headers().header(HttpHeaders.ACCEPT_ENCODING));
+            if (encoding == null) {
+                return response;
+            }
+            return new DelegatingServerResponse(response) {
+                @Override
+                public ModelAndView writeTo(HttpServletRequest servletRequest, HttpServletResponse servletResponse,
+                                            Context context) throws ServletException, IOException {
+                    CompressingResponseWrapper compressing = new CompressingResponseWrapper(servletResponse,
+                            encoding, pools.get(encoding), minSize, ResponseCompressor.this::isCompressible);
+                    try {
+                        ModelAndView modelAndView = delegate.writeTo(servletRequest, compressing, context);
+                        compressing.finish();
+                        if (compressing.compressed()) {
+                            responses.get(encoding).increment();
+                            bytesIn.increment(compressing.bytesIn());
+                            bytesOut.increment(compressing.bytesOut());
+                        }
+                        return modelAndView;
+                    } finally {
+                        compressing.release();
+                    }
+                }
+            };
+        };
+    }
+
+    private boolean isCompressible(String contentType) {
+        try {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (MediaType compressible : compressibleTypes) {
+                if (compressible.includes(type)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
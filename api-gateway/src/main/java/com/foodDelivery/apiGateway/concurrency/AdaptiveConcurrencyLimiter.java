@@ -0,0 +1,87 @@
+package com.foodDelivery.apiGateway.concurrency;
+
+import com.foodDelivery.apiGateway.filters.CompletingServerResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caps in-flight requests per upstream at a limit that adapts to the upstream's latency. Requests over
+ * the limit are answered with 503 immediately instead of queueing behind a slow service. A call is in
+ * flight, and its latency measured, until its response body has been written.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final AdaptiveConcurrencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiter(AdaptiveConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> limit(String service) {
+        if (!properties.isEnabled()) {
+            return (request, next) -> next.handle(request);
+        }
+        // Routes to the same upstream share its limit
+        AdaptiveLimit limit = limits.computeIfAbsent(service, this::createLimit);
+        Counter rejected = Counter.builder("gateway.concurrency.rejected")
+                .description("Requests shed because the upstream's concurrency limit was reached")
+                .tag("service", service)
+                .register(meterRegistry);
+
+        return (request, next) -> {
+            if (!limit.tryAcquire()) {
+                rejected.increment();
+                return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("Service unavailable. Please try again later.");
+            }
+            long start = System.nanoTime();
+            ServerResponse response;
+            try {
+                response = next.handle(request);
+            } catch (Exception e) {
+                limit.onFailure();
+                throw e;
+            }
+            int status = response.statusCode().value();
+            if (status == 503 || status == 504) {
+                limit.onFailure();
+                return response;
+            }
+            // The sample covers the whole call, body included, and a streaming response counts until it is done
+            return new CompletingServerResponse(response, failure -> {
+                if (failure != null) {
+                    limit.onFailure();
+                } else {
+                    limit.onSuccess(System.nanoTime() - start);
+                }
+            });
+        };
+    }
+
+    private AdaptiveLimit createLimit(String service) {
+        AdaptiveConcurrencyProperties.Limits bounds = properties.getServices().getOrDefault(service, properties.getDefaults());
+        AdaptiveLimit limit = new AdaptiveLimit(bounds, properties);
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveLimit::limit)
+                .tag("service", service)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limit, AdaptiveLimit::inFlight)
+                .tag("service", service)
+                .register(meterRegistry);
+        log.info("Adaptive concurrency limit for {} starts at {}", service, limit.limit());
+        return limit;
+    }
+}
@@ -0,0 +1,41 @@
+package com.foodDelivery.apiGateway.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds and tuning for the per-upstream adaptive concurrency limits. {@code services} overrides the
+ * limit bounds for individual upstreams.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.concurrency")
+public class AdaptiveConcurrencyProperties {
+
+    private boolean enabled = true;
+
+    private Limits defaults = new Limits();
+
+    private Map<String, Limits> services = new LinkedHashMap<>();
+
+    /** How far the short-term latency may exceed the long-term baseline before the limit shrinks. */
+    private double tolerance = 1.5;
+
+    /** Weight of each new limit estimate; lower values move the limit more slowly. */
+    private double smoothing = 0.2;
+
+    /** Number of samples the long-term latency baseline averages over. */
+    private int longWindow = 600;
+
+    /** Factor the limit is multiplied by when a call fails or times out. */
+    private double backoffRatio = 0.9;
+
+    @Data
+    public static class Limits {
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+    }
+}
@@ -0,0 +1,93 @@
+package com.foodDelivery.apiGateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient concurrency limit for one upstream. A long-term average of call latency is the baseline for
+ * "no queueing"; when recent latency rises above it the limit shrinks in proportion, and while latency
+ * holds steady the limit grows by roughly its square root per sample. Failed calls back the limit off.
+ */
+class AdaptiveLimit {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longAlpha;
+    private final double backoffRatio;
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    AdaptiveLimit(AdaptiveConcurrencyProperties.Limits limits, AdaptiveConcurrencyProperties properties) {
+        this.minLimit = limits.getMinLimit();
+        this.maxLimit = limits.getMaxLimit();
+        this.limit = limits.getInitialLimit();
+        this.tolerance = properties.getTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.longAlpha = 2.0 / (properties.getLongWindow() + 1);
+        this.backoffRatio = properties.getBackoffRatio();
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        // Another thread is already updating; one skipped sample does not matter
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+                return;
+            }
+            longRttNanos = longRttNanos * (1 - longAlpha) + rttNanos * longAlpha;
+            // Recover quickly when the baseline was learned during a slow period
+            if (longRttNanos / rttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+            // Don't grow the limit when the upstream is not the bottleneck
+            if (inFlightAtCompletion < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+            double estimate = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - smoothing) + estimate * smoothing);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    void onFailure() {
+        inFlight.decrementAndGet();
+        updateLock.lock();
+        try {
+            limit = clamp(limit * backoffRatio);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+}
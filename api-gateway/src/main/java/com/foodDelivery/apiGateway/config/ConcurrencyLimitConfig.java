@@ -0,0 +1,10 @@
+package com.foodDelivery.apiGateway.config;
+
+import com.foodDelivery.apiGateway.concurrency.AdaptiveConcurrencyProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdaptiveConcurrencyProperties.class)
+public class ConcurrencyLimitConfig {
+}
@@ -0,0 +1,10 @@
+package com.foodDelivery.apiGateway.config;
+
+import com.foodDelivery.apiGateway.openapi.OpenApiAggregationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(OpenApiAggregationProperties.class)
+public class OpenApiAggregationConfig {
+}
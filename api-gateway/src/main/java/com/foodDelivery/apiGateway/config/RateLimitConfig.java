@@ -0,0 +1,21 @@
+package com.foodDelivery.apiGateway.config;
+
+import com.foodDelivery.apiGateway.ratelimit.InMemoryTokenBucketStore;
+import com.foodDelivery.apiGateway.ratelimit.RateLimitProperties;
+import com.foodDelivery.apiGateway.ratelimit.TokenBucketStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    // Replaced by any other TokenBucketStore bean, e.g. one backed by a store shared between pods
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenBucketStore tokenBucketStore(RateLimitProperties properties) {
+        return new InMemoryTokenBucketStore(properties.getMaxKeys());
+    }
+}
@@ -0,0 +1,11 @@
+package com.foodDelivery.apiGateway.config;
+
+import com.foodDelivery.apiGateway.cache.CoalescingProperties;
+import com.foodDelivery.apiGateway.cache.ResponseCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({ResponseCacheProperties.class, CoalescingProperties.class})
+public class ResponseCacheConfig {
+}
@@ -3,12 +3,15 @@ package com.foodDelivery.apiGateway.config;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.servers.Server;
-import org.springdoc.core.models.GroupedOpenApi;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
 
+/**
+ * Describes the gateway itself. The services' APIs are listed in Swagger UI from the documents the
+ * gateway aggregates, see {@code springdoc.swagger-ui.urls} and {@code gateway.openapi}.
+ */
 @Configuration
 public class SwaggerConfig {
 
@@ -23,44 +26,4 @@ public class SwaggerConfig {
                         new Server().url("http://localhost:8081").description("Local Development")
                 ));
     }
-
-    @Bean
-    public GroupedOpenApi authApis() {
-        return GroupedOpenApi.builder()
-                .group("auth-service")
-                .pathsToMatch("/api/auth/**", "/api/password/**")
-                .build();
-    }
-
-    @Bean
-    public GroupedOpenApi userApis() {
-        return GroupedOpenApi.builder()
-                .group("user-service")
-                .pathsToMatch("/api/users/**")
-                .build();
-    }
-
-    @Bean
-    public GroupedOpenApi restaurantApis() {
-        return GroupedOpenApi.builder()
-                .group("restaurant-service")
-                .pathsToMatch("/api/restaurants/**")
-                .build();
-    }
-
-    @Bean
-    public GroupedOpenApi orderApis() {
-        return GroupedOpenApi.builder()
-                .group("order-service")
-                .pathsToMatch("/api/orders/**")
-                .build();
-    }
-
-    @Bean
-    public GroupedOpenApi deliveryApis() {
-        return GroupedOpenApi.builder()
-                .group("delivery-service")
-                .pathsToMatch("/api/delivery/**")
-                .build();
-    }
-}
\ No newline at end of file
+}
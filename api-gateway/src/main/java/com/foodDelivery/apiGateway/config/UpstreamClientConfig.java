@@ -0,0 +1,75 @@
+package com.foodDelivery.apiGateway.config;
+
+import com.foodDelivery.apiGateway.client.RoutingClientHttpRequestFactory;
+import com.foodDelivery.apiGateway.client.UpstreamClientFactory;
+import com.foodDelivery.apiGateway.loadbalancer.LoadBalancerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.server.mvc.config.GatewayMvcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds the request factory the gateway proxies through: one pooled keep-alive client per configured
+ * upstream, selected by the host and port of the outgoing request.
+ */
+@Configuration
+@EnableConfigurationProperties({UpstreamClientProperties.class, LoadBalancerProperties.class})
+@Slf4j
+public class UpstreamClientConfig {
+
+    static final String DEFAULT_CLIENT = "default";
+
+    @Bean
+    public RoutingClientHttpRequestFactory upstreamRequestFactory(UpstreamClientProperties properties,
+                                                                  GatewayMvcProperties gatewayMvcProperties,
+                                                                  MeterRegistry meterRegistry,
+                                                                  ObjectProvider<ExecutorService> upstreamExecutor) {
+        UpstreamClientProperties.Settings defaults = withGatewayTimeouts(properties.getDefaults(), gatewayMvcProperties);
+        List<AutoCloseable> resources = new ArrayList<>();
+        UpstreamClientFactory clientFactory = new UpstreamClientFactory(meterRegistry,
+                upstreamExecutor.getIfAvailable(), resources);
+
+        Map<String, ClientHttpRequestFactory> upstreams = new LinkedHashMap<>();
+        Map<String, String> authorities = new LinkedHashMap<>();
+        properties.getClients().forEach((name, client) -> {
+            upstreams.put(name, clientFactory.create(name, client.mergedWith(defaults)));
+            if (client.getUrl() != null) {
+                authorities.put(RoutingClientHttpRequestFactory.authority(URI.create(client.getUrl())), name);
+            }
+        });
+
+        RoutingClientHttpRequestFactory requestFactory = new RoutingClientHttpRequestFactory(upstreams,
+                clientFactory.create(DEFAULT_CLIENT, defaults), resources);
+        authorities.forEach(requestFactory::bind);
+        log.info("Upstream clients configured for {}", authorities);
+        return requestFactory;
+    }
+
+    private UpstreamClientProperties.Settings withGatewayTimeouts(UpstreamClientProperties.Settings defaults,
+                                                                  GatewayMvcProperties gatewayMvcProperties) {
+        // gateway.upstream.defaults wins; the gateway's own http-client timeouts fill the gaps
+        GatewayMvcProperties.HttpClient httpClient = gatewayMvcProperties.getHttpClient();
+        UpstreamClientProperties.Settings fallback = new UpstreamClientProperties.Settings();
+        fallback.setConnectTimeout(httpClient.getConnectTimeout());
+        fallback.setReadTimeout(httpClient.getReadTimeout());
+
+        UpstreamClientProperties.Client merged = new UpstreamClientProperties.Client();
+        merged.setMaxConnections(defaults.getMaxConnections());
+        merged.setIdleEviction(defaults.getIdleEviction());
+        merged.setConnectTimeout(defaults.getConnectTimeout());
+        merged.setReadTimeout(defaults.getReadTimeout());
+        merged.setHttp2(defaults.getHttp2());
+        return merged.mergedWith(fallback);
+    }
+}
@@ -0,0 +1,48 @@
+package com.foodDelivery.apiGateway.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings for the clients the gateway proxies through. {@code defaults} applies to every
+ * upstream; entries under {@code clients} are matched on the host and port of their {@code url} and
+ * override individual defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamClientProperties {
+
+    private Settings defaults = new Settings();
+
+    private Map<String, Client> clients = new LinkedHashMap<>();
+
+    @Data
+    public static class Settings {
+        private Integer maxConnections;
+        private Duration idleEviction;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Boolean http2;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Client extends Settings {
+        private String url;
+
+        public Settings mergedWith(Settings defaults) {
+            Settings merged = new Settings();
+            merged.setMaxConnections(getMaxConnections() != null ? getMaxConnections() : defaults.getMaxConnections());
+            merged.setIdleEviction(getIdleEviction() != null ? getIdleEviction() : defaults.getIdleEviction());
+            merged.setConnectTimeout(getConnectTimeout() != null ? getConnectTimeout() : defaults.getConnectTimeout());
+            merged.setReadTimeout(getReadTimeout() != null ? getReadTimeout() : defaults.getReadTimeout());
+            merged.setHttp2(getHttp2() != null ? getHttp2() : defaults.getHttp2());
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.foodDelivery.apiGateway.config;
+
+import com.foodDelivery.apiGateway.tracing.ContextPropagatingExecutors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}. Spring Boot already moves Tomcat request
+ * handling onto virtual threads; this extends the same model to the executor Resilience4j uses for
+ * circuit-breaker/time-limiter calls and to HTTP/2 upstream clients (see {@link UpstreamClientConfig}),
+ * so a request waiting on a slow upstream parks a virtual thread instead of pinning a platform one.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService upstreamExecutor() {
+        // Circuit-breaker calls hop onto this executor, so the request's trace context has to come along
+        return ContextPropagatingExecutors.wrap(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> virtualThreadCircuitBreakerCustomizer(ExecutorService upstreamExecutor) {
+        return factory -> factory.configureExecutorService(upstreamExecutor);
+    }
+}
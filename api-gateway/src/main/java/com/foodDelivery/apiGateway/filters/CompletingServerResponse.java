@@ -0,0 +1,48 @@
+package com.foodDelivery.apiGateway.filters;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Runs a callback once the proxied body has been written. {@code next.handle} returns as soon as the
+ * upstream sends its headers, so filters that hold a resource for the whole call (a bulkhead permit, a
+ * concurrency limit slot) release it here rather than when the handler returns. The callback gets the
+ * exception that ended the write, or {@code null}, and runs at most once.
+ */
+public class CompletingServerResponse extends DelegatingServerResponse {
+
+    private final Consumer<Exception> onComplete;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    public CompletingServerResponse(ServerResponse delegate, Consumer<Exception> onComplete) {
+        super(delegate);
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+            throws ServletException, IOException {
+        Exception failure = null;
+        try {
+            return delegate.writeTo(request, response, context);
+        } catch (ServletException | IOException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            complete(failure);
+        }
+    }
+
+    private void complete(Exception failure) {
+        if (completed.compareAndSet(false, true)) {
+            onComplete.accept(failure);
+        }
+    }
+}
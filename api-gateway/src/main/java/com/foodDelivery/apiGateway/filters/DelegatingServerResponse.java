@@ -0,0 +1,54 @@
+package com.foodDelivery.apiGateway.filters;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+
+/**
+ * Base for route filters that need to observe or transform the body of a proxied response while it is
+ * written; subclasses override {@link #writeTo} and typically wrap the servlet response.
+ */
+public class DelegatingServerResponse implements ServerResponse {
+
+    protected final ServerResponse delegate;
+
+    public DelegatingServerResponse(ServerResponse delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public HttpStatusCode statusCode() {
+        return delegate.statusCode();
+    }
+
+    // Still abstract in ServerResponse, though deprecated for removal
+    @Override
+    @SuppressWarnings("removal")
+    public int rawStatusCode() {
+        return statusCode().value();
+    }
+
+    @Override
+    public HttpHeaders headers() {
+        return delegate.headers();
+    }
+
+    @Override
+    public MultiValueMap<String, Cookie> cookies() {
+        return delegate.cookies();
+    }
+
+    @Override
+    public ModelAndView writeTo(HttpServletRequest request, HttpServletResponse response, Context context)
+            throws ServletException, IOException {
+        return delegate.writeTo(request, response, context);
+    }
+}
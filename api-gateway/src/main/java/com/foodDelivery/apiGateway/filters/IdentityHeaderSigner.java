@@ -0,0 +1,86 @@
+package com.foodDelivery.apiGateway.filters;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Signs the identity the gateway has already verified into a compact header so downstream
+ * services can trust it without re-verifying the JWT.
+ * Format: {@code base64url(subject \n role,role \n expMillis) + "." + base64url(HMAC-SHA256)}.
+ * The header expires after a short fixed TTL (or at the token's exp, if sooner), so a captured header
+ * cannot be replayed for long even when the token itself never expires.
+ */
+@Component
+@Slf4j
+public class IdentityHeaderSigner {
+
+    public static final String IDENTITY_HEADER = "X-Authenticated-Identity";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${foodDelivery.app.identity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${foodDelivery.app.identity.secret}")
+    private String identitySecret;
+
+    @Value("${foodDelivery.app.identity.ttl:30s}")
+    private Duration ttl;
+
+    private Mac prototype;
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        prototype = Mac.getInstance(HMAC_ALGORITHM);
+        prototype.init(new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        log.info("Forwarding of verified identity to downstream services {}", enabled ? "enabled" : "disabled");
+    }
+
+    // Applied on every route, so a client-supplied header never reaches an upstream, whatever its auth mode
+    public HandlerFilterFunction<ServerResponse, ServerResponse> strip() {
+        return (request, next) -> next.handle(request.headers().header(IDENTITY_HEADER).isEmpty()
+                ? request
+                : ServerRequest.from(request).headers(headers -> headers.remove(IDENTITY_HEADER)).build());
+    }
+
+    public ServerRequest forward(ServerRequest request, VerifiedToken token) {
+        // Always overwrite, so a client-supplied header never reaches the upstream
+        String header = enabled ? sign(token) : null;
+        return ServerRequest.from(request)
+                .headers(headers -> {
+                    if (header != null) {
+                        headers.set(IDENTITY_HEADER, header);
+                    } else {
+                        headers.remove(IDENTITY_HEADER);
+                    }
+                })
+                .build();
+    }
+
+    String sign(VerifiedToken token) {
+        long expiresAt = Math.min(token.expiresAtMillis(), System.currentTimeMillis() + ttl.toMillis());
+        String payload = token.subject() + "\n" + String.join(",", token.roles()) + "\n" + expiresAt;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String encodedPayload = encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + encoder.encodeToString(mac().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC implementation is not cloneable", e);
+        }
+    }
+}
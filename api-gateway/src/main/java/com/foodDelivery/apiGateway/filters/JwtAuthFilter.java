@@ -1,53 +1,91 @@
 package com.foodDelivery.apiGateway.filters;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
 import io.jsonwebtoken.security.Keys;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter {
 
+    /** Request attribute holding the {@link VerifiedToken} of an authenticated route request. */
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = JwtAuthFilter.class.getName() + ".verifiedToken";
+
+    private static final String ROLES_KEY = "roles";
+
     @Value("${foodDelivery.app.jwt.secret}")
     private String jwtSecret;
 
-    private SecretKey key;
+    private final VerifiedTokenCache tokenCache;
+
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
-        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe, so one instance serves every request
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
         log.info("JWT validation key initialized");
     }
 
     public boolean isAuthenticated(HttpServletRequest request) {
+        return authenticate(request).isPresent();
+    }
+
+    public Optional<VerifiedToken> authenticate(HttpServletRequest request) {
         String token = extractTokenFromRequest(request);
         if (token == null) {
-            return false;
+            return Optional.empty();
+        }
+        return Optional.ofNullable(verify(token));
+    }
+
+    private VerifiedToken verify(String token) {
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
         }
 
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
 
             // Token is valid
-            return true;
+            VerifiedToken verified = toVerifiedToken(claims);
+            if (verified.expiresAtMillis() != Long.MAX_VALUE) {
+                tokenCache.put(token, verified);
+            }
+            return verified;
         } catch (Exception e) {
             log.error("JWT token validation failed: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        List<String> roles = claims.get(ROLES_KEY, List.class);
+        return new VerifiedToken(claims.getSubject(), roles,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -55,4 +93,4 @@ public class JwtAuthFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
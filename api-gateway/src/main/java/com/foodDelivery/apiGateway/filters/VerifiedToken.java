@@ -0,0 +1,14 @@
+package com.foodDelivery.apiGateway.filters;
+
+import java.util.List;
+
+public record VerifiedToken(String subject, List<String> roles, long expiresAtMillis) {
+
+    public VerifiedToken {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
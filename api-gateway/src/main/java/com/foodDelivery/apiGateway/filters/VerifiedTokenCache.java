@@ -0,0 +1,116 @@
+package com.foodDelivery.apiGateway.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified. Entries are keyed by a
+ * SHA-256 digest of the raw token (the token itself is never stored) and drop out at the
+ * token's own {@code exp}, so a cached entry can never outlive the token it represents.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final long PURGE_INTERVAL_MS = 1000;
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final boolean enabled;
+    private final int maxSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public VerifiedTokenCache(@Value("${foodDelivery.app.jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${foodDelivery.app.jwt.cache.max-size:10000}") int maxSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("gateway.jwt.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gateway.jwt.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("gateway.jwt.cache.evictions").register(meterRegistry);
+        Gauge.builder("gateway.jwt.cache.size", entries, Map::size).register(meterRegistry);
+        log.info("Verified token cache {} (max size {})", enabled ? "enabled" : "disabled", maxSize);
+    }
+
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = digest(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, cached)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!enabled || verified.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(digest(token), verified);
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        long previous = lastPurge.get();
+        if (now - previous >= PURGE_INTERVAL_MS && lastPurge.compareAndSet(previous, now)) {
+            entries.entrySet().removeIf(entry -> {
+                boolean expired = entry.getValue().isExpired(now);
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+        }
+
+        // Still full of live tokens: drop arbitrary entries, they will simply be re-verified
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
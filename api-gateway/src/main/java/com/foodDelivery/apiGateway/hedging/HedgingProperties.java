@@ -0,0 +1,39 @@
+package com.foodDelivery.apiGateway.hedging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hedging and retry settings for idempotent routes. Only routes listed under {@code routes} are hedged;
+ * every hedge and retry draws from one gateway-wide budget.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+
+    /** Hedges and retries allowed per request, e.g. 0.1 allows one extra attempt for every ten requests. */
+    private double budgetRatio = 0.1;
+
+    /** Extra attempts allowed per second regardless of traffic, so quiet routes can still retry. */
+    private int minRetriesPerSecond = 10;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        /** Fixed hedge delay. When unset the route hedges once a request outlives its observed p95. */
+        private Duration delay;
+
+        /** Hedge delay used until enough latency samples exist, and lower bound of the p95 delay. */
+        private Duration minDelay = Duration.ofMillis(50);
+
+        /** Retry once on connection failures and 502/503/504 answers. */
+        private boolean retry = true;
+    }
+}
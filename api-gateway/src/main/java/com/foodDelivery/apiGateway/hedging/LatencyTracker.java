@@ -0,0 +1,38 @@
+package com.foodDelivery.apiGateway.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the most recent response times of a route and a periodically recomputed p95 of them.
+ */
+class LatencyTracker {
+
+    static final int WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long p95Nanos = -1;
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % WINDOW), nanos);
+        if (n + 1 >= WINDOW && (n + 1) % RECOMPUTE_EVERY == 0) {
+            long[] copy = new long[WINDOW];
+            for (int i = 0; i < WINDOW; i++) {
+                copy[i] = samples.get(i);
+            }
+            Arrays.sort(copy);
+            p95Nanos = copy[(int) (WINDOW * 0.95)];
+        }
+    }
+
+    /**
+     * @return the p95 in nanos, or -1 until a full window has been recorded
+     */
+    long p95() {
+        return p95Nanos;
+    }
+}
@@ -0,0 +1,239 @@
+package com.foodDelivery.apiGateway.hedging;
+
+import com.foodDelivery.apiGateway.loadbalancer.UpstreamLoadBalancer;
+import com.foodDelivery.apiGateway.tracing.ContextPropagatingExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hedges idempotent requests: when the first attempt has not answered within the route's hedge delay a
+ * second one goes to another replica, the first answer wins and the other attempt is cancelled. Failed
+ * attempts are retried once on another replica. Hedges and retries both draw from a {@link RetryBudget}, and
+ * are skipped when the upstream has no other replica to send them to.
+ */
+@Component
+@Slf4j
+public class RequestHedger {
+
+    private static final Set<HttpMethod> IDEMPOTENT = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final HedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final UpstreamLoadBalancer loadBalancer;
+    private final RetryBudget budget;
+    private final ExecutorService executor =
+            ContextPropagatingExecutors.wrap(Executors.newVirtualThreadPerTaskExecutor());
+
+    public RequestHedger(HedgingProperties properties, MeterRegistry meterRegistry, UpstreamLoadBalancer loadBalancer) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.loadBalancer = loadBalancer;
+        this.budget = new RetryBudget(properties.getBudgetRatio(), properties.getMinRetriesPerSecond(), System::nanoTime);
+        Gauge.builder("gateway.hedging.budget.available", budget, RetryBudget::available)
+                .description("Hedges and retries the gateway may currently spend")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param service the load-balanced upstream the route proxies to
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> hedge(String routeId, String service) {
+        HedgingProperties.Route route = properties.getRoutes().get(routeId);
+        if (!properties.isEnabled() || route == null) {
+            return (request, next) -> next.handle(request);
+        }
+        LatencyTracker latency = new LatencyTracker();
+        Counter requests = counter("gateway.hedging.requests", routeId);
+        Counter hedges = attemptCounter(routeId, "hedge");
+        Counter retries = attemptCounter(routeId, "retry");
+        Counter hedgeWins = counter("gateway.hedging.hedge.wins", routeId);
+        Counter exhausted = counter("gateway.hedging.budget.exhausted", routeId);
+        Counter skipped = counter("gateway.hedging.skipped", routeId);
+
+        return (request, next) -> {
+            if (!IDEMPOTENT.contains(request.method())) {
+                return next.handle(request);
+            }
+            requests.increment();
+            budget.onRequest();
+            long start = System.nanoTime();
+            CompletionService<ServerResponse> completions = new ExecutorCompletionService<>(executor);
+            Attempt primary = new Attempt(request, null, next, completions);
+            Attempt hedge = null;
+            Attempt winner = primary;
+            try {
+                if (completions.poll(hedgeDelayNanos(route, latency), TimeUnit.NANOSECONDS) == null) {
+                    if (!loadBalancer.hasAlternative(service, primary.endpoint())) {
+                        // A hedge would land on the same replica and only double its load
+                        skipped.increment();
+                        completions.take();
+                    } else if (budget.tryWithdraw()) {
+                        hedges.increment();
+                        hedge = new Attempt(request, primary.endpoint(), next, completions);
+                        Future<ServerResponse> first = completions.take();
+                        winner = first == primary.future ? primary : hedge;
+                        if (!winner.succeeded()) {
+                            // The first answer was a failure; the other attempt may still do better
+                            completions.take();
+                            winner = winner == primary ? hedge : primary;
+                        }
+                        (winner == primary ? hedge : primary).abandon();
+                        if (winner == hedge) {
+                            hedgeWins.increment();
+                        }
+                    } else {
+                        exhausted.increment();
+                        completions.take();
+                    }
+                }
+
+                if (route.isRetry() && !winner.succeeded()) {
+                    if (!loadBalancer.hasAlternative(service, winner.endpoint())) {
+                        skipped.increment();
+                    } else if (budget.tryWithdraw()) {
+                        retries.increment();
+                        winner.abandon();
+                        winner = new Attempt(request, winner.endpoint(), next, completions);
+                        completions.take();
+                    } else {
+                        exhausted.increment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // The circuit breaker's time limiter gave up on this request
+                primary.abandon();
+                if (hedge != null) {
+                    hedge.abandon();
+                }
+                winner.abandon();
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+
+            ServerResponse response = winner.response();
+            if (winner.succeeded()) {
+                latency.record(System.nanoTime() - start);
+            }
+            return response;
+        };
+    }
+
+    private long hedgeDelayNanos(HedgingProperties.Route route, LatencyTracker latency) {
+        if (route.getDelay() != null) {
+            return route.getDelay().toNanos();
+        }
+        return Math.max(latency.p95(), route.getMinDelay().toNanos());
+    }
+
+    private Counter counter(String name, String routeId) {
+        return Counter.builder(name)
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    private Counter attemptCounter(String routeId, String type) {
+        return Counter.builder("gateway.hedging.attempts")
+                .description("Extra upstream attempts made for hedges and retries")
+                .tag("route", routeId)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One upstream call made on its own copy of the request, so concurrent attempts never share the
+     * attributes the load balancer and proxy write.
+     */
+    private final class Attempt {
+
+        private final ServerRequest request;
+        private final Future<ServerResponse> future;
+        private volatile boolean abandoned;
+
+        Attempt(ServerRequest original, URI excludedEndpoint, HandlerFunction<ServerResponse> next,
+                CompletionService<ServerResponse> completions) {
+            this.request = ServerRequest.from(original).build();
+            if (excludedEndpoint != null) {
+                request.attributes().put(UpstreamLoadBalancer.EXCLUDED_ENDPOINT_ATTRIBUTE, excludedEndpoint);
+            }
+            this.future = completions.submit(() -> {
+                ServerResponse response = next.handle(request);
+                if (abandoned) {
+                    closeBody();
+                }
+                return response;
+            });
+        }
+
+        URI endpoint() {
+            return (URI) request.attributes().get(MvcUtils.GATEWAY_REQUEST_URL_ATTR);
+        }
+
+        boolean succeeded() {
+            if (!future.isDone() || future.isCancelled()) {
+                return false;
+            }
+            try {
+                int status = future.get().statusCode().value();
+                return status != 502 && status != 503 && status != 504;
+            } catch (InterruptedException | ExecutionException e) {
+                return false;
+            }
+        }
+
+        ServerResponse response() throws Exception {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        void abandon() {
+            abandoned = true;
+            if (!future.cancel(true) && !future.isCancelled()) {
+                // Already answered: release the upstream connection its unread body holds
+                executor.execute(this::closeBody);
+            }
+        }
+
+        private void closeBody() {
+            if (request.attributes().get(MvcUtils.CLIENT_RESPONSE_INPUT_STREAM_ATTR) instanceof InputStream body) {
+                try {
+                    body.close();
+                } catch (IOException e) {
+                    log.debug("Failed to close abandoned upstream response: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.foodDelivery.apiGateway.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token budget shared by hedges and retries. Every request deposits {@code ratio} of a token, every
+ * extra attempt withdraws a whole one, and a small per-second reserve keeps low-traffic routes able to
+ * retry. When an upstream degrades the budget runs dry instead of multiplying its load.
+ */
+class RetryBudget {
+
+    private static final long TOKEN = 1000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long depositPerRequest;
+    private final long reservePerSecond;
+    private final long capacity;
+    private final LongSupplier nanoClock;
+    private final AtomicLong balance;
+    private final AtomicLong lastRefillNanos;
+
+    RetryBudget(double ratio, int minRetriesPerSecond, LongSupplier nanoClock) {
+        this.depositPerRequest = Math.round(ratio * TOKEN);
+        this.reservePerSecond = minRetriesPerSecond * TOKEN;
+        // Up to ten seconds' worth of reserve can be saved for a burst
+        this.capacity = Math.max(reservePerSecond, TOKEN) * 10;
+        this.nanoClock = nanoClock;
+        this.balance = new AtomicLong(reservePerSecond);
+        this.lastRefillNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    void onRequest() {
+        deposit(depositPerRequest);
+    }
+
+    boolean tryWithdraw() {
+        refill();
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    double available() {
+        return (double) balance.get() / TOKEN;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long last = lastRefillNanos.get();
+        long tokens = (now - last) * reservePerSecond / NANOS_PER_SECOND;
+        if (tokens > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            deposit(tokens);
+        }
+    }
+
+    private void deposit(long amount) {
+        balance.accumulateAndGet(amount, (current, add) -> Math.min(capacity, current + add));
+    }
+}
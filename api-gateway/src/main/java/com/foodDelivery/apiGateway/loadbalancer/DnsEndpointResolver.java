@@ -0,0 +1,36 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves every address behind a DNS name. For a Kubernetes headless Service that is one A record per
+ * ready pod, which lets the gateway balance across pods instead of pinning connections to one ClusterIP.
+ */
+public class DnsEndpointResolver implements EndpointResolver {
+
+    private final String scheme;
+    private final String dnsName;
+    private final int port;
+
+    public DnsEndpointResolver(String scheme, String dnsName, int port) {
+        this.scheme = scheme;
+        this.dnsName = dnsName;
+        this.port = port;
+    }
+
+    @Override
+    public List<URI> resolve() throws UnknownHostException {
+        return Arrays.stream(InetAddress.getAllByName(dnsName))
+                .map(address -> URI.create(scheme + "://" + hostLiteral(address) + ":" + port))
+                .toList();
+    }
+
+    private static String hostLiteral(InetAddress address) {
+        String host = address.getHostAddress();
+        return host.indexOf(':') >= 0 ? "[" + host + "]" : host;
+    }
+}
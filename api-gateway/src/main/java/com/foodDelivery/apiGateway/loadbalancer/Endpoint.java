@@ -0,0 +1,58 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One replica of an upstream together with the passive health state the balancer keeps for it.
+ */
+public class Endpoint {
+
+    private final URI uri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntilMillis;
+
+    Endpoint(URI uri) {
+        this.uri = uri;
+    }
+
+    public URI uri() {
+        return uri;
+    }
+
+    public int outstanding() {
+        return outstanding.get();
+    }
+
+    boolean isAvailable(long nowMillis) {
+        return nowMillis >= ejectedUntilMillis;
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    void succeeded() {
+        outstanding.decrementAndGet();
+        consecutiveFailures.set(0);
+    }
+
+    // A call the gateway gave up on itself, e.g. the losing half of a hedged request
+    void abandoned() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * @return true if this failure ejected the endpoint
+     */
+    boolean failed(int threshold, long ejectUntilMillis) {
+        outstanding.decrementAndGet();
+        if (consecutiveFailures.incrementAndGet() >= threshold) {
+            consecutiveFailures.set(0);
+            ejectedUntilMillis = ejectUntilMillis;
+            return true;
+        }
+        return false;
+    }
+}
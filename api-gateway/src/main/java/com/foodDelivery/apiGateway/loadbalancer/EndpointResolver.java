@@ -0,0 +1,13 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.List;
+
+/**
+ * Supplies the current set of replica base URIs for one upstream.
+ */
+public interface EndpointResolver {
+
+    List<URI> resolve() throws UnknownHostException;
+}
@@ -0,0 +1,38 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where each upstream's replicas come from and how unhealthy ones are ejected. A service resolves to its
+ * static {@code endpoints} if given, otherwise to every address behind {@code dns-name} (a headless
+ * Service), otherwise to its single {@code url}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.loadbalancer")
+public class LoadBalancerProperties {
+
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    /** Consecutive failures (connect errors, 502/503/504) before an endpoint is ejected. */
+    private int failureThreshold = 3;
+
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    @Data
+    public static class Service {
+        private String url;
+        private List<String> endpoints = new ArrayList<>();
+        private String dnsName;
+        /** Port used for addresses resolved from {@code dns-name}; defaults to the port of {@code url}. */
+        private Integer port;
+    }
+}
@@ -0,0 +1,110 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The replicas of one upstream. Picks with power-of-two-choices on outstanding requests, skipping
+ * ejected endpoints; if every endpoint is ejected it fails open rather than rejecting the request.
+ */
+@Slf4j
+class ServiceEndpoints {
+
+    private final String service;
+    private final EndpointResolver resolver;
+    private volatile List<Endpoint> endpoints = List.of();
+
+    ServiceEndpoints(String service, EndpointResolver resolver) {
+        this.service = service;
+        this.resolver = resolver;
+    }
+
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    void refresh() {
+        List<URI> resolved;
+        try {
+            resolved = resolver.resolve();
+        } catch (Exception e) {
+            log.warn("Failed to resolve endpoints for {}: {}", service, e.getMessage());
+            return;
+        }
+        if (resolved.isEmpty()) {
+            log.warn("No endpoints resolved for {}, keeping {}", service, endpoints.size());
+            return;
+        }
+
+        // Keep the health and load state of endpoints that are still present
+        Map<URI, Endpoint> current = endpoints.stream()
+                .collect(Collectors.toMap(Endpoint::uri, Function.identity()));
+        List<Endpoint> refreshed = resolved.stream()
+                .distinct()
+                .map(uri -> current.getOrDefault(uri, new Endpoint(uri)))
+                .toList();
+        if (!refreshed.equals(endpoints)) {
+            log.info("Endpoints for {}: {}", service, resolved);
+        }
+        endpoints = refreshed;
+    }
+
+    /**
+     * @param endpoint the endpoint a request already went to, or null when it is not known
+     * @return whether {@link #choose} can pick an endpoint other than {@code endpoint}
+     */
+    boolean hasAlternativeTo(URI endpoint) {
+        List<Endpoint> current = endpoints;
+        if (endpoint == null) {
+            return current.size() > 1;
+        }
+        return current.stream().anyMatch(candidate -> !candidate.uri().equals(endpoint));
+    }
+
+    /**
+     * @param excluded endpoint to avoid if any other is available, e.g. the one a hedged request went to
+     */
+    Endpoint choose(long nowMillis, URI excluded) {
+        List<Endpoint> current = endpoints;
+        if (excluded != null && current.size() > 1) {
+            current = current.stream().filter(endpoint -> !endpoint.uri().equals(excluded)).toList();
+        }
+        int size = current.size();
+        if (size == 0) {
+            throw new IllegalStateException("No endpoints available for " + service);
+        }
+        if (size == 1) {
+            return current.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = (first + 1 + random.nextInt(size - 1)) % size;
+        Endpoint a = current.get(first);
+        Endpoint b = current.get(second);
+        boolean aAvailable = a.isAvailable(nowMillis);
+        boolean bAvailable = b.isAvailable(nowMillis);
+
+        if (aAvailable && bAvailable) {
+            return a.outstanding() <= b.outstanding() ? a : b;
+        }
+        if (aAvailable) {
+            return a;
+        }
+        if (bAvailable) {
+            return b;
+        }
+        for (Endpoint endpoint : current) {
+            if (endpoint.isAvailable(nowMillis)) {
+                return endpoint;
+            }
+        }
+        return a.outstanding() <= b.outstanding() ? a : b;
+    }
+}
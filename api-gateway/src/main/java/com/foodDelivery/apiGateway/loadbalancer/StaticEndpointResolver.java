@@ -0,0 +1,18 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import java.net.URI;
+import java.util.List;
+
+public class StaticEndpointResolver implements EndpointResolver {
+
+    private final List<URI> endpoints;
+
+    public StaticEndpointResolver(List<String> endpoints) {
+        this.endpoints = endpoints.stream().map(URI::create).toList();
+    }
+
+    @Override
+    public List<URI> resolve() {
+        return endpoints;
+    }
+}
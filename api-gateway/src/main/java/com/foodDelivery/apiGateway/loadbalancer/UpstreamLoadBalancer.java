@@ -0,0 +1,175 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import com.foodDelivery.apiGateway.client.RoutingClientHttpRequestFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads proxied requests across the replicas of each upstream. Routes use {@code HandlerFunctions.http()}
+ * and add {@link #balance(String)} as their innermost filter, which picks the endpoint and sets it as the
+ * request URL. Endpoint lists are re-resolved every {@code gateway.loadbalancer.refresh-interval}.
+ */
+@Component
+@Slf4j
+public class UpstreamLoadBalancer {
+
+    /** Request attribute naming an endpoint URI the balancer should avoid for this request. */
+    public static final String EXCLUDED_ENDPOINT_ATTRIBUTE = UpstreamLoadBalancer.class.getName() + ".excludedEndpoint";
+
+    private final LoadBalancerProperties properties;
+    private final ObjectProvider<RoutingClientHttpRequestFactory> requestFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ServiceEndpoints> services = new LinkedHashMap<>();
+    private final Map<String, Counter> ejections = new LinkedHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    public UpstreamLoadBalancer(LoadBalancerProperties properties,
+                                ObjectProvider<RoutingClientHttpRequestFactory> requestFactory,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.requestFactory = requestFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        properties.getServices().forEach((name, service) -> {
+            ServiceEndpoints endpoints = new ServiceEndpoints(name, resolverFor(name, service));
+            services.put(name, endpoints);
+            ejections.put(name, Counter.builder("gateway.loadbalancer.ejections")
+                    .description("Endpoints ejected after consecutive failures")
+                    .tag("service", name)
+                    .register(meterRegistry));
+            Gauge.builder("gateway.loadbalancer.endpoints", endpoints, e -> e.endpoints().size())
+                    .description("Resolved endpoints per upstream")
+                    .tag("service", name)
+                    .register(meterRegistry);
+        });
+        refreshAll();
+
+        refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("gateway-lb-refresh").daemon().factory());
+        long interval = properties.getRefreshInterval().toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> balance(String service) {
+        ServiceEndpoints endpoints = services.get(service);
+        if (endpoints == null) {
+            throw new IllegalArgumentException("No gateway.loadbalancer.services entry for " + service);
+        }
+        Counter ejected = ejections.get(service);
+
+        return (request, next) -> {
+            URI excluded = (URI) request.attributes().get(EXCLUDED_ENDPOINT_ATTRIBUTE);
+            Endpoint endpoint = endpoints.choose(System.currentTimeMillis(), excluded);
+            MvcUtils.setRequestUrl(request, endpoint.uri());
+            endpoint.begin();
+            ServerResponse response;
+            try {
+                response = next.handle(request);
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    endpoint.abandoned();
+                } else {
+                    recordFailure(service, endpoint, ejected);
+                }
+                throw e;
+            }
+            int status = response.statusCode().value();
+            if (status == 502 || status == 503 || status == 504) {
+                recordFailure(service, endpoint, ejected);
+            } else {
+                endpoint.succeeded();
+            }
+            return response;
+        };
+    }
+
+    /**
+     * @return the endpoints currently resolved for {@code service}, ones that are not ejected first
+     */
+    public List<URI> endpoints(String service) {
+        ServiceEndpoints endpoints = services.get(service);
+        if (endpoints == null) {
+            throw new IllegalArgumentException("No gateway.loadbalancer.services entry for " + service);
+        }
+        long now = System.currentTimeMillis();
+        return endpoints.endpoints().stream()
+                .sorted(Comparator.comparing(endpoint -> !endpoint.isAvailable(now)))
+                .map(Endpoint::uri)
+                .toList();
+    }
+
+    /**
+     * @return whether a request to {@code service} that must avoid {@code endpoint} can go anywhere else
+     */
+    public boolean hasAlternative(String service, URI endpoint) {
+        ServiceEndpoints endpoints = services.get(service);
+        if (endpoints == null) {
+            throw new IllegalArgumentException("No gateway.loadbalancer.services entry for " + service);
+        }
+        return endpoints.hasAlternativeTo(endpoint);
+    }
+
+    void refreshAll() {
+        RoutingClientHttpRequestFactory clients = requestFactory.getIfAvailable();
+        services.forEach((name, endpoints) -> {
+            endpoints.refresh();
+            // Give every replica the same connection pool settings as the upstream it belongs to
+            if (clients != null && clients.hasUpstream(name)) {
+                clients.rebind(name, endpoints.endpoints().stream()
+                        .map(endpoint -> RoutingClientHttpRequestFactory.authority(endpoint.uri()))
+                        .toList());
+            }
+        });
+    }
+
+    private void recordFailure(String service, Endpoint endpoint, Counter ejected) {
+        long now = System.currentTimeMillis();
+        if (endpoint.failed(properties.getFailureThreshold(), now + properties.getEjectionDuration().toMillis())) {
+            ejected.increment();
+            log.warn("Ejected {} endpoint {} for {}", service, endpoint.uri(), properties.getEjectionDuration());
+        }
+    }
+
+    private static EndpointResolver resolverFor(String name, LoadBalancerProperties.Service service) {
+        if (!service.getEndpoints().isEmpty()) {
+            return new StaticEndpointResolver(service.getEndpoints());
+        }
+        if (service.getUrl() == null) {
+            throw new IllegalStateException("gateway.loadbalancer.services." + name + " needs a url or endpoints");
+        }
+        URI url = URI.create(service.getUrl());
+        if (service.getDnsName() != null && !service.getDnsName().isBlank()) {
+            int port = service.getPort() != null ? service.getPort() : RoutingClientHttpRequestFactory.port(url);
+            return new DnsEndpointResolver(url.getScheme(), service.getDnsName(), port);
+        }
+        return new StaticEndpointResolver(List.of(service.getUrl()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.foodDelivery.apiGateway.metrics;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot-path instrumentation for the proxy routes:
+ * <ul>
+ *     <li>{@code gateway.route.latency{route,status}} - time from the route matching to the response
+ *     headers being ready, including every filter and the upstream call;</li>
+ *     <li>{@code gateway.upstream.latency{route,status}} - time spent in each upstream call, so filter
+ *     overhead is the difference of the two;</li>
+ *     <li>{@code gateway.jwt.verification{result}} - bearer token verification, cache hits included;</li>
+ *     <li>{@code gateway.circuitbreaker.transitions{name,from,to}} and {@code gateway.fallback.invocations{route}}.</li>
+ * </ul>
+ * Timers are pre-registered or looked up by index, so recording allocates nothing.
+ */
+@Component
+@Slf4j
+public class GatewayMetrics {
+
+    /** Request attribute naming the route a request was matched to; survives the forward to the fallback. */
+    public static final String ROUTE_ATTRIBUTE = GatewayMetrics.class.getName() + ".route";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer jwtValid;
+    private final Timer jwtRejected;
+
+    public GatewayMetrics(MeterRegistry meterRegistry, ObjectProvider<CircuitBreakerRegistry> circuitBreakers) {
+        this.meterRegistry = meterRegistry;
+        this.jwtValid = jwtTimer("valid");
+        this.jwtRejected = jwtTimer("rejected");
+        circuitBreakers.ifAvailable(registry -> {
+            registry.getAllCircuitBreakers().forEach(this::countTransitions);
+            registry.getEventPublisher().onEntryAdded(event -> countTransitions(event.getAddedEntry()));
+        });
+    }
+
+    /**
+     * Outermost filter of a route: times the whole route and tags the request with its route id.
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> route(String routeId) {
+        StatusTimers timers = new StatusTimers("gateway.route.latency",
+                "Time from route match to response headers, filters and upstream included", routeId, meterRegistry);
+        return (request, next) -> {
+            request.attributes().put(ROUTE_ATTRIBUTE, routeId);
+            long start = System.nanoTime();
+            try {
+                ServerResponse response = next.handle(request);
+                timers.record(response.statusCode().value(), System.nanoTime() - start);
+                return response;
+            } catch (Exception e) {
+                timers.recordError(System.nanoTime() - start);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Innermost filter of a route, right around the proxied call.
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> upstream(String routeId) {
+        StatusTimers timers = new StatusTimers("gateway.upstream.latency",
+                "Time spent waiting on the upstream, per attempt", routeId, meterRegistry);
+        return (request, next) -> {
+            long start = System.nanoTime();
+            try {
+                ServerResponse response = next.handle(request);
+                timers.record(response.statusCode().value(), System.nanoTime() - start);
+                return response;
+            } catch (Exception e) {
+                timers.recordError(System.nanoTime() - start);
+                throw e;
+            }
+        };
+    }
+
+    public void recordJwtVerification(boolean valid, long nanos) {
+        (valid ? jwtValid : jwtRejected).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFallback(ServerRequest request) {
+        Object routeId = request.servletRequest().getAttribute(ROUTE_ATTRIBUTE);
+        meterRegistry.counter("gateway.fallback.invocations", "route", routeId != null ? routeId.toString() : "unknown")
+                .increment();
+    }
+
+    private Timer jwtTimer(String result) {
+        return Timer.builder("gateway.jwt.verification")
+                .description("Bearer token verification, cache hits included")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private void countTransitions(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            meterRegistry.counter("gateway.circuitbreaker.transitions",
+                    "name", event.getCircuitBreakerName(),
+                    "from", transition.getFromState().name(),
+                    "to", transition.getToState().name()).increment();
+            log.warn("Circuit breaker {} went from {} to {}", event.getCircuitBreakerName(),
+                    transition.getFromState(), transition.getToState());
+        });
+    }
+}
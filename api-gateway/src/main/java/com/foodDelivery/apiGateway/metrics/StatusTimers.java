@@ -0,0 +1,57 @@
+package com.foodDelivery.apiGateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One route's timers, one per response status. Each timer is registered the first time its status is
+ * seen and then found by array index, so recording a request allocates nothing.
+ */
+class StatusTimers {
+
+    private static final int MAX_STATUS = 599;
+    private static final int ERROR = 0;
+
+    private final String name;
+    private final String description;
+    private final String routeId;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReferenceArray<Timer> timers = new AtomicReferenceArray<>(MAX_STATUS + 1);
+
+    StatusTimers(String name, String description, String routeId, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.description = description;
+        this.routeId = routeId;
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(int status, long nanos) {
+        int index = status >= 100 && status <= MAX_STATUS ? status : ERROR;
+        Timer timer = timers.get(index);
+        if (timer == null) {
+            timer = register(index);
+            timers.set(index, timer);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordError(long nanos) {
+        record(ERROR, nanos);
+    }
+
+    private Timer register(int index) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("route", routeId)
+                .tag("status", index == ERROR ? "error" : Integer.toString(index))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.foodDelivery.apiGateway.openapi;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Which upstream OpenAPI documents the gateway keeps in memory and how often it refetches them. Services
+ * are keyed by their {@code gateway.loadbalancer.services} name.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.openapi")
+public class OpenApiAggregationProperties {
+
+    private boolean enabled = true;
+
+    /** Title of the merged document served at {@code /aggregate/v3/api-docs}. */
+    private String title = "Food Delivery API";
+
+    /** Every document is refetched at least this often. */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+
+    /**
+     * How often to look for rollouts (a changed set of replicas) and to retry services whose document
+     * could not be fetched yet, e.g. because they are still starting.
+     */
+    private Duration checkInterval = Duration.ofSeconds(15);
+
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    @Data
+    public static class Service {
+        private String path = "/v3/api-docs";
+    }
+}
@@ -0,0 +1,218 @@
+package com.foodDelivery.apiGateway.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodDelivery.apiGateway.client.RoutingClientHttpRequestFactory;
+import com.foodDelivery.apiGateway.loadbalancer.UpstreamLoadBalancer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps every service's OpenAPI document, and a merged one, in memory so Swagger UI never reaches the
+ * services. Documents are fetched in the background: on start, every {@code refresh-interval}, as soon as
+ * a service's replica set changes (a rollout), and every {@code check-interval} for services that have
+ * not answered yet. A failed fetch keeps the last good document. Responses carry an ETag and honour
+ * If-None-Match.
+ */
+@Component
+@Slf4j
+public class OpenApiAggregator {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private final OpenApiAggregationProperties properties;
+    private final UpstreamLoadBalancer loadBalancer;
+    private final RestClient restClient;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final OpenApiMerger merger = new OpenApiMerger();
+    private final Map<String, Source> sources = new LinkedHashMap<>();
+    private volatile OpenApiDocument aggregate;
+    private ScheduledExecutorService refresher;
+
+    public OpenApiAggregator(OpenApiAggregationProperties properties, UpstreamLoadBalancer loadBalancer,
+                             RoutingClientHttpRequestFactory requestFactory, MeterRegistry meterRegistry,
+                             ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.loadBalancer = loadBalancer;
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        properties.getServices().forEach((name, service) -> sources.put(name, new Source(name, service.getPath())));
+        refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("gateway-openapi-refresh").daemon().factory());
+        long interval = properties.getCheckInterval().toMillis();
+        refresher.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /** {@code GET /aggregate/v3/api-docs} */
+    public ServerResponse aggregatedDocs(ServerRequest request) {
+        return serve(request, aggregate);
+    }
+
+    /** {@code GET /aggregate/{service}/v3/api-docs} */
+    public ServerResponse serviceDocs(ServerRequest request) {
+        Source source = sources.get(request.pathVariable("service"));
+        if (source == null) {
+            return ServerResponse.notFound().build();
+        }
+        return serve(request, source.document);
+    }
+
+    void check() {
+        long now = System.currentTimeMillis();
+        boolean changed = false;
+        for (Source source : sources.values()) {
+            try {
+                List<URI> endpoints = loadBalancer.endpoints(source.name);
+                if (source.isDue(now, endpoints, properties.getRefreshInterval().toMillis())) {
+                    changed |= fetch(source, endpoints, now);
+                }
+            } catch (RuntimeException e) {
+                log.warn("OpenAPI refresh of {} failed: {}", source.name, e.getMessage());
+            }
+        }
+        if (changed) {
+            rebuildAggregate();
+        }
+    }
+
+    private boolean fetch(Source source, List<URI> endpoints, long now) {
+        for (URI endpoint : endpoints) {
+            try {
+                byte[] body = restClient.get()
+                        .uri(endpoint.resolve(source.path))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .retrieve()
+                        .body(byte[].class);
+                if (body != null && source.document != null && Arrays.equals(body, source.document.json())) {
+                    source.fetched(endpoints, now);
+                    source.unchanged.increment();
+                    return false;
+                }
+                source.tree = objectMapper.readTree(body);
+                source.document = OpenApiDocument.of(body);
+                source.fetched(endpoints, now);
+                source.updated.increment();
+                log.info("Loaded OpenAPI document of {} from {}", source.name, endpoint);
+                return true;
+            } catch (Exception e) {
+                log.debug("Could not fetch OpenAPI document of {} from {}: {}", source.name, endpoint, e.getMessage());
+            }
+        }
+        source.failed.increment();
+        source.retryPending = true;
+        log.warn("Could not fetch OpenAPI document of {}{}", source.name,
+                source.document != null ? ", serving the last one" : ", will retry");
+        return false;
+    }
+
+    private void rebuildAggregate() {
+        Map<String, JsonNode> documents = new LinkedHashMap<>();
+        sources.forEach((name, source) -> {
+            if (source.tree != null) {
+                documents.put(name, source.tree);
+            }
+        });
+        try {
+            aggregate = OpenApiDocument.of(objectMapper.writeValueAsBytes(merger.merge(properties.getTitle(), documents)));
+        } catch (Exception e) {
+            log.warn("Could not merge OpenAPI documents, keeping the previous aggregate: {}", e.getMessage());
+        }
+    }
+
+    private ServerResponse serve(ServerRequest request, OpenApiDocument document) {
+        if (document == null) {
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(properties.getCheckInterval().toSeconds()))
+                    .body("API documentation is not available yet. Please try again later.");
+        }
+        if (document.matches(request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(document.etag())
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(document.etag())
+                .cacheControl(REVALIDATE)
+                .body(document.json());
+    }
+
+    private final class Source {
+        final String name;
+        final String path;
+        final Counter updated;
+        final Counter unchanged;
+        final Counter failed;
+        volatile OpenApiDocument document;
+        JsonNode tree;
+        List<URI> endpoints = List.of();
+        long fetchedAt;
+        boolean retryPending = true;
+
+        Source(String name, String path) {
+            this.name = name;
+            this.path = path;
+            this.updated = counter("updated");
+            this.unchanged = counter("unchanged");
+            this.failed = counter("failed");
+        }
+
+        boolean isDue(long now, List<URI> current, long refreshIntervalMillis) {
+            // Compared as sets: the balancer orders endpoints by health, not identity
+            return retryPending
+                    || now - fetchedAt >= refreshIntervalMillis
+                    || !(current.size() == endpoints.size() && endpoints.containsAll(current));
+        }
+
+        void fetched(List<URI> current, long now) {
+            endpoints = current;
+            fetchedAt = now;
+            retryPending = false;
+        }
+
+        private Counter counter(String result) {
+            return Counter.builder("gateway.openapi.fetches")
+                    .description("Background fetches of upstream OpenAPI documents")
+                    .tag("service", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.foodDelivery.apiGateway.openapi;
+
+import com.foodDelivery.apiGateway.cache.ETags;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * An OpenAPI document as served: its JSON bytes and a strong ETag derived from them.
+ */
+public record OpenApiDocument(byte[] json, String etag) {
+
+    static OpenApiDocument of(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new OpenApiDocument(json, '"' + HexFormat.of().formatHex(digest, 0, 16) + '"');
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @param ifNoneMatch the request's If-None-Match header, may be null
+     */
+    boolean matches(String ifNoneMatch) {
+        return ifNoneMatch != null && ETags.matches(List.of(ifNoneMatch), etag);
+    }
+}
@@ -0,0 +1,113 @@
+package com.foodDelivery.apiGateway.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Merges per-service OpenAPI documents into one. Paths and tags are combined; a component that two
+ * services define differently under the same name is renamed to {@code <service>_<name>} in the later
+ * service, together with every {@code $ref} to it. Servers point at the gateway.
+ */
+@Slf4j
+class OpenApiMerger {
+
+    private static final String COMPONENT_REF_PREFIX = "#/components/";
+
+    private final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+    ObjectNode merge(String title, Map<String, JsonNode> documents) {
+        ObjectNode merged = nodes.objectNode();
+        merged.put("openapi", documents.values().stream()
+                .map(document -> document.path("openapi").asText(null))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse("3.0.1"));
+        merged.putObject("info")
+                .put("title", title)
+                .put("description", "Aggregated from " + String.join(", ", documents.keySet()))
+                .put("version", "aggregate");
+        merged.putArray("servers").addObject().put("url", "/");
+        ObjectNode paths = merged.putObject("paths");
+        ObjectNode components = merged.putObject("components");
+        ArrayNode tags = merged.putArray("tags");
+        Set<String> tagNames = new HashSet<>();
+
+        documents.forEach((service, original) -> {
+            JsonNode document = withComponentsRenamed(service, original, components);
+            document.path("paths").fields().forEachRemaining(path -> {
+                if (paths.has(path.getKey())) {
+                    log.warn("OpenAPI path {} of {} is already defined by another service, skipping it",
+                            path.getKey(), service);
+                } else {
+                    paths.set(path.getKey(), path.getValue());
+                }
+            });
+            document.path("components").fields().forEachRemaining(type -> {
+                ObjectNode target = components.has(type.getKey())
+                        ? (ObjectNode) components.get(type.getKey())
+                        : components.putObject(type.getKey());
+                type.getValue().fields().forEachRemaining(component -> target.set(component.getKey(), component.getValue()));
+            });
+            for (JsonNode tag : document.path("tags")) {
+                if (tagNames.add(tag.path("name").asText())) {
+                    tags.add(tag);
+                }
+            }
+        });
+        return merged;
+    }
+
+    // Renames components that clash with a different definition already merged, and rewrites refs to them
+    private JsonNode withComponentsRenamed(String service, JsonNode document, ObjectNode merged) {
+        Map<String, String> renames = new HashMap<>();
+        document.path("components").fields().forEachRemaining(type -> {
+            JsonNode existing = merged.path(type.getKey());
+            type.getValue().fields().forEachRemaining(component -> {
+                JsonNode current = existing.get(component.getKey());
+                if (current != null && !current.equals(component.getValue())) {
+                    String prefix = COMPONENT_REF_PREFIX + type.getKey() + "/";
+                    renames.put(prefix + component.getKey(), prefix + service + "_" + component.getKey());
+                }
+            });
+        });
+        if (renames.isEmpty()) {
+            return document;
+        }
+
+        JsonNode copy = document.deepCopy();
+        rewriteRefs(copy, renames);
+        renames.forEach((from, to) -> {
+            String[] source = from.substring(COMPONENT_REF_PREFIX.length()).split("/", 2);
+            String target = to.substring(to.lastIndexOf('/') + 1);
+            ObjectNode type = (ObjectNode) copy.path("components").path(source[0]);
+            type.set(target, type.remove(source[1]));
+        });
+        return copy;
+    }
+
+    private static void rewriteRefs(JsonNode node, Map<String, String> renames) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            JsonNode ref = object.get("$ref");
+            if (ref != null && ref.isTextual() && renames.containsKey(ref.asText())) {
+                object.put("$ref", renames.get(ref.asText()));
+            }
+            Iterator<JsonNode> children = object.elements();
+            while (children.hasNext()) {
+                rewriteRefs(children.next(), renames);
+            }
+        } else if (node.isArray()) {
+            node.forEach(child -> rewriteRefs(child, renames));
+        }
+    }
+}
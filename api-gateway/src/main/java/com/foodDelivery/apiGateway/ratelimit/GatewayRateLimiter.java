@@ -0,0 +1,99 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+import com.foodDelivery.apiGateway.filters.JwtAuthFilter;
+import com.foodDelivery.apiGateway.filters.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route rate limiting for the gateway routes, added with {@code .filter(rateLimiter.rateLimit(routeId))}.
+ * Authenticated requests are limited per JWT subject, anonymous ones per client IP; authenticated routes
+ * also get a looser per-IP limit ahead of token verification ({@link #limitClientIp}).
+ */
+@Component
+@RequiredArgsConstructor
+public class GatewayRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final TokenBucketStore store;
+    private final MeterRegistry meterRegistry;
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> rateLimit(String routeId) {
+        if (!properties.isEnabled()) {
+            return (request, next) -> next.handle(request);
+        }
+        RateLimitProperties.Quota quota = properties.getRoutes().getOrDefault(routeId, properties.getDefaults());
+        Counter allowed = counter(routeId, "allowed");
+        Counter rejected = counter(routeId, "rejected");
+        String keyPrefix = routeId + ':';
+
+        return (request, next) -> {
+            long waitNanos = store.tryConsume(keyPrefix + clientKey(request), quota);
+            if (waitNanos == 0) {
+                allowed.increment();
+                return next.handle(request);
+            }
+            rejected.increment();
+            return tooManyRequests(waitNanos);
+        };
+    }
+
+    /**
+     * Per client IP limit for authenticated routes, applied before the token is verified so that a flood
+     * of bad tokens is throttled before each one costs a signature check. Requests that pass are counted
+     * by {@link #rateLimit} once their subject is known.
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> limitClientIp(String routeId) {
+        if (!properties.isEnabled()) {
+            return (request, next) -> next.handle(request);
+        }
+        RateLimitProperties.Quota quota = properties.getPerClientIp();
+        Counter rejected = counter(routeId, "rejected");
+        String keyPrefix = routeId + ":pre-auth:";
+
+        return (request, next) -> {
+            long waitNanos = store.tryConsume(keyPrefix + clientIp(request), quota);
+            if (waitNanos == 0) {
+                return next.handle(request);
+            }
+            rejected.increment();
+            return tooManyRequests(waitNanos);
+        };
+    }
+
+    private static ServerResponse tooManyRequests(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body("Too many requests. Please try again later.");
+    }
+
+    private static String clientKey(ServerRequest request) {
+        Object token = request.attributes().get(JwtAuthFilter.VERIFIED_TOKEN_ATTRIBUTE);
+        if (token instanceof VerifiedToken verified && verified.subject() != null) {
+            return "user:" + verified.subject();
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    // The ingress address is replaced by the client's from X-Forwarded-For via server.forward-headers-strategy
+    private static String clientIp(ServerRequest request) {
+        return request.servletRequest().getRemoteAddr();
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token buckets. Each bucket is a single {@link AtomicLong} holding the time at which it
+ * will be full again (GCRA), so a decision is one map lookup and one CAS. A bucket whose time has
+ * passed is indistinguishable from a new one, which is what lets idle clients be dropped.
+ */
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong();
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    public InMemoryTokenBucketStore(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    InMemoryTokenBucketStore(int maxKeys, LongSupplier clock) {
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.lastPurge.set(clock.getAsLong());
+    }
+
+    @Override
+    public long tryConsume(String key, RateLimitProperties.Quota quota) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                makeRoom(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / quota.getReplenishRate();
+        long tolerance = interval * quota.getBurstCapacity();
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + interval;
+            long allowedAt = next - tolerance;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void makeRoom(long now) {
+        long previous = lastPurge.get();
+        if (now - previous >= PURGE_INTERVAL_NANOS && lastPurge.compareAndSet(previous, now)) {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+
+        // Still full of active clients: forget arbitrary ones, they restart with a full bucket
+        Iterator<String> keys = buckets.keySet().iterator();
+        while (buckets.size() >= maxKeys && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token bucket quotas per route id. Routes without an entry under {@code routes} use {@code defaults}.
+ * Every quota is checked at startup, so a zero or negative rate fails the bind instead of the first request.
+ */
+@Data
+@Validated
+@ConfigurationProperties(prefix = "gateway.ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Upper bound on tracked clients in the in-memory store. */
+    private int maxKeys = 100_000;
+
+    @Valid
+    private Quota defaults = new Quota();
+
+    private Map<String, @Valid Quota> routes = new LinkedHashMap<>();
+
+    /**
+     * Applied per client IP before the JWT is verified on authenticated routes. Loose enough for many users
+     * behind one NAT; it only has to stop floods of unverifiable tokens.
+     */
+    @Valid
+    private Quota perClientIp = quota(200, 400);
+
+    private static Quota quota(int replenishRate, int burstCapacity) {
+        Quota quota = new Quota();
+        quota.setReplenishRate(replenishRate);
+        quota.setBurstCapacity(burstCapacity);
+        return quota;
+    }
+
+    @Data
+    public static class Quota {
+        /** Tokens added per second. */
+        @Positive
+        private int replenishRate = 50;
+        /** Bucket size, i.e. how many requests may arrive at once. */
+        @Positive
+        private int burstCapacity = 100;
+    }
+}
@@ -0,0 +1,15 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+/**
+ * Backend that holds the token buckets. The in-memory store limits each gateway pod on its own;
+ * a shared implementation (e.g. Redis) can be registered as a bean so all pods draw from one bucket.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Takes one token from the bucket for {@code key}.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    long tryConsume(String key, RateLimitProperties.Quota quota);
+}
@@ -0,0 +1,49 @@
+package com.foodDelivery.apiGateway.routes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Declarative route table keyed by route id. The route id is also the key the rate limiter, cache,
+ * bulkhead and hedging settings use for the route.
+ */
+@Data
+@ConfigurationProperties(prefix = GatewayRoutingProperties.PREFIX)
+public class GatewayRoutingProperties {
+
+    static final String PREFIX = "gateway.routing";
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public enum Auth {
+        NONE, JWT
+    }
+
+    @Data
+    public static class Route {
+        /** Exact path, or a prefix ending in {@code /**}. */
+        private String path;
+
+        /** Upstream service name under {@code gateway.loadbalancer.services}. */
+        private String service;
+
+        private Auth auth = Auth.JWT;
+
+        private boolean rateLimit = true;
+
+        /** Apply response caching and request coalescing; TTLs come from {@code gateway.cache.routes}. */
+        private boolean cache;
+
+        /** Compress responses for clients that accept it, see {@code gateway.compression}. */
+        private boolean compress = true;
+
+        /** Circuit breaker id. Routes with a breaker also get a bulkhead, a concurrency limit and hedging. */
+        private String circuitBreaker;
+
+        /** Replaces the whole request path before it is proxied. */
+        private String rewritePath;
+    }
+}
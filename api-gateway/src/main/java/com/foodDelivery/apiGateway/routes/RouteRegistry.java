@@ -0,0 +1,192 @@
+package com.foodDelivery.apiGateway.routes;
+
+import com.foodDelivery.apiGateway.bulkhead.RouteBulkheads;
+import com.foodDelivery.apiGateway.cache.GatewayResponseCache;
+import com.foodDelivery.apiGateway.cache.RequestCoalescer;
+import com.foodDelivery.apiGateway.compression.ResponseCompressor;
+import com.foodDelivery.apiGateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.foodDelivery.apiGateway.filters.IdentityHeaderSigner;
+import com.foodDelivery.apiGateway.filters.JwtAuthFilter;
+import com.foodDelivery.apiGateway.filters.VerifiedToken;
+import com.foodDelivery.apiGateway.hedging.RequestHedger;
+import com.foodDelivery.apiGateway.loadbalancer.UpstreamLoadBalancer;
+import com.foodDelivery.apiGateway.metrics.GatewayMetrics;
+import com.foodDelivery.apiGateway.ratelimit.GatewayRateLimiter;
+import com.foodDelivery.apiGateway.tracing.RouteSpans;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.filter.CircuitBreakerFilterFunctions;
+import org.springframework.cloud.gateway.server.mvc.handler.HandlerFunctions;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.cloud.gateway.server.mvc.filter.FilterFunctions.setPath;
+
+/**
+ * Compiles the {@code gateway.routing.routes} table into a {@link RouteTrie} of ready-built filter
+ * chains, so matching a request is one trie walk and each route's filters are assembled once. The table
+ * is recompiled when those properties change (e.g. after {@code POST /actuator/refresh}); an invalid
+ * table is rejected and the current one stays in place.
+ */
+@Component
+@Slf4j
+public class RouteRegistry {
+
+    private static final URI FALLBACK = URI.create("forward:/fallbackRoute");
+
+    private final Environment environment;
+    private final JwtAuthFilter jwtAuthFilter;
+    private final IdentityHeaderSigner identityHeaderSigner;
+    private final UpstreamLoadBalancer loadBalancer;
+    private final GatewayRateLimiter rateLimiter;
+    private final GatewayResponseCache responseCache;
+    private final RequestCoalescer requestCoalescer;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RequestHedger requestHedger;
+    private final RouteBulkheads bulkheads;
+    private final ResponseCompressor compressor;
+    private final GatewayMetrics metrics;
+    private final RouteSpans routeSpans;
+
+    private volatile Table table;
+
+    private record Table(RouteTrie<HandlerFunction<ServerResponse>> trie,
+                         Map<String, GatewayRoutingProperties.Route> definitions) {
+    }
+
+    public RouteRegistry(GatewayRoutingProperties properties, Environment environment, JwtAuthFilter jwtAuthFilter,
+                         IdentityHeaderSigner identityHeaderSigner, UpstreamLoadBalancer loadBalancer,
+                         GatewayRateLimiter rateLimiter, GatewayResponseCache responseCache,
+                         RequestCoalescer requestCoalescer, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                         RequestHedger requestHedger, RouteBulkheads bulkheads,
+                         ResponseCompressor compressor, GatewayMetrics metrics, RouteSpans routeSpans) {
+        this.environment = environment;
+        this.jwtAuthFilter = jwtAuthFilter;
+        this.identityHeaderSigner = identityHeaderSigner;
+        this.loadBalancer = loadBalancer;
+        this.rateLimiter = rateLimiter;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.requestHedger = requestHedger;
+        this.bulkheads = bulkheads;
+        this.compressor = compressor;
+        this.metrics = metrics;
+        this.routeSpans = routeSpans;
+        this.table = compile(properties.getRoutes());
+        log.info("Compiled {} gateway routes", table.definitions().size());
+    }
+
+    public Optional<HandlerFunction<ServerResponse>> lookup(String path) {
+        return Optional.ofNullable(table.trie().find(path));
+    }
+
+    public Map<String, GatewayRoutingProperties.Route> definitions() {
+        return table.definitions();
+    }
+
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(GatewayRoutingProperties.PREFIX + "."))) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        GatewayRoutingProperties current = Binder.get(environment)
+                .bindOrCreate(GatewayRoutingProperties.PREFIX, GatewayRoutingProperties.class);
+        try {
+            table = compile(current.getRoutes());
+            log.info("Reloaded {} gateway routes", table.definitions().size());
+        } catch (RuntimeException e) {
+            log.error("Rejected gateway route table, keeping the current one: {}", e.getMessage());
+        }
+    }
+
+    private Table compile(Map<String, GatewayRoutingProperties.Route> definitions) {
+        RouteTrie<HandlerFunction<ServerResponse>> trie = new RouteTrie<>();
+        definitions.forEach((id, route) -> {
+            if (route.getPath() == null || route.getService() == null) {
+                throw new IllegalStateException("Route " + id + " needs both a path and a service");
+            }
+            trie.add(route.getPath(), handler(id, route));
+        });
+        return new Table(trie, Collections.unmodifiableMap(new LinkedHashMap<>(definitions)));
+    }
+
+    private HandlerFunction<ServerResponse> handler(String id, GatewayRoutingProperties.Route route) {
+        // Outermost first, the same order RouterFunction#filter would apply them in
+        List<HandlerFilterFunction<ServerResponse, ServerResponse>> filters = new ArrayList<>();
+        filters.add(metrics.route(id));
+        filters.add(routeSpans.trace(id));
+        filters.add(identityHeaderSigner.strip());
+        if (route.isCompress()) {
+            filters.add(compressor.compress());
+        }
+        if (route.getAuth() == GatewayRoutingProperties.Auth.JWT) {
+            if (route.isRateLimit()) {
+                // Throttle per IP before the signature check, per subject after it
+                filters.add(rateLimiter.limitClientIp(id));
+            }
+            filters.add(authenticated());
+        }
+        if (route.isRateLimit()) {
+            filters.add(rateLimiter.rateLimit(id));
+        }
+        if (route.isCache()) {
+            filters.add(responseCache.cache(id));
+            filters.add(requestCoalescer.coalesce(id));
+        }
+        if (route.getCircuitBreaker() != null) {
+            filters.add(bulkheads.isolate(id));
+            filters.add(concurrencyLimiter.limit(route.getService()));
+            filters.add(CircuitBreakerFilterFunctions.circuitBreaker(route.getCircuitBreaker(), FALLBACK));
+            filters.add(requestHedger.hedge(id, route.getService()));
+        }
+        if (route.getRewritePath() != null) {
+            filters.add(setPath(route.getRewritePath()));
+        }
+        filters.add(loadBalancer.balance(route.getService()));
+        filters.add(metrics.upstream(id));
+
+        HandlerFunction<ServerResponse> handler = HandlerFunctions.http();
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            handler = filters.get(i).apply(handler);
+        }
+        HandlerFunction<ServerResponse> chain = handler;
+        return request -> {
+            MvcUtils.setRouteId(request, id);
+            return chain.handle(request);
+        };
+    }
+
+    // Verifies the bearer token once and forwards the verified identity to the upstream
+    private HandlerFilterFunction<ServerResponse, ServerResponse> authenticated() {
+        return (request, next) -> {
+            long start = System.nanoTime();
+            Optional<VerifiedToken> token = jwtAuthFilter.authenticate(request.servletRequest());
+            metrics.recordJwtVerification(token.isPresent(), System.nanoTime() - start);
+            if (token.isEmpty()) {
+                return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                        .body("Access denied: Authentication required");
+            }
+            request.attributes().put(JwtAuthFilter.VERIFIED_TOKEN_ATTRIBUTE, token.get());
+            return next.handle(identityHeaderSigner.forward(request, token.get()));
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.foodDelivery.apiGateway.routes;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/gatewayroutes}: the route table the gateway is currently serving.
+ */
+@Component
+@Endpoint(id = "gatewayroutes")
+public class RouteTableEndpoint {
+
+    private final RouteRegistry routeRegistry;
+
+    public RouteTableEndpoint(RouteRegistry routeRegistry) {
+        this.routeRegistry = routeRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, GatewayRoutingProperties.Route> routes() {
+        return routeRegistry.definitions();
+    }
+}
@@ -0,0 +1,63 @@
+package com.foodDelivery.apiGateway.routes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Path-segment trie mapping exact paths and {@code /**} prefixes to values. A lookup walks each segment
+ * of the request path once, whatever the number of routes; exact matches beat prefixes and longer
+ * prefixes beat shorter ones. Not thread-safe for writes: build it fully, then publish it.
+ */
+class RouteTrie<T> {
+
+    private final Node<T> root = new Node<>();
+
+    void add(String pattern, T value) {
+        boolean prefix = pattern.endsWith("/**");
+        Node<T> node = root;
+        String path = prefix ? pattern.substring(0, pattern.length() - 3) : pattern;
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.children.computeIfAbsent(segment, key -> new Node<>());
+            }
+        }
+        if ((prefix ? node.prefix : node.exact) != null) {
+            throw new IllegalStateException("Duplicate route path " + pattern);
+        }
+        if (prefix) {
+            node.prefix = value;
+        } else {
+            node.exact = value;
+        }
+    }
+
+    T find(String path) {
+        Node<T> node = root;
+        T longestPrefix = root.prefix;
+        int start = 0;
+        int length = path.length();
+        while (start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                node = node.children.get(path.substring(start, end));
+                if (node == null) {
+                    return longestPrefix;
+                }
+                if (node.prefix != null) {
+                    longestPrefix = node.prefix;
+                }
+            }
+            start = end + 1;
+        }
+        return node.exact != null ? node.exact : longestPrefix;
+    }
+
+    private static final class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        T exact;
+        T prefix;
+    }
+}
@@ -0,0 +1,22 @@
+package com.foodDelivery.apiGateway.tracing;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Executors that carry the submitting thread's context (the current observation and trace span) over
+ * to the task, so work handed to the circuit breaker or a hedged attempt stays in the request's trace.
+ */
+public final class ContextPropagatingExecutors {
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private ContextPropagatingExecutors() {
+    }
+
+    public static ExecutorService wrap(ExecutorService executor) {
+        return ContextExecutorService.wrap(executor, SNAPSHOTS::captureAll);
+    }
+}
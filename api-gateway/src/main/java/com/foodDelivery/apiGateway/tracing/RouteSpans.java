@@ -0,0 +1,41 @@
+package com.foodDelivery.apiGateway.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Opens a {@code gateway <route>} span around each route's filter chain, as a child of the inbound
+ * server span. The upstream client span and its {@code traceparent} header are created inside it, so a
+ * trace shows how much of a request went to auth, rate limiting and resilience filters versus the
+ * upstream call. Spans are sampled per {@code management.tracing.sampling.probability}.
+ */
+@Component
+public class RouteSpans {
+
+    private final Tracer tracer;
+
+    public RouteSpans(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    public HandlerFilterFunction<ServerResponse, ServerResponse> trace(String routeId) {
+        String name = "gateway " + routeId;
+        return (request, next) -> {
+            Span span = tracer.nextSpan().name(name).tag("gateway.route", routeId).start();
+            try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+                ServerResponse response = next.handle(request);
+                span.tag("http.response.status_code", response.statusCode().value());
+                return response;
+            } catch (Exception e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.end();
+            }
+        };
+    }
+}
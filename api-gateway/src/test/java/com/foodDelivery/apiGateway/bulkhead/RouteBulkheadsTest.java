@@ -0,0 +1,122 @@
+package com.foodDelivery.apiGateway.bulkhead;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {
+		"gateway.hedging.enabled=false",
+		"resilience4j.bulkhead.instances.order_service.max-concurrent-calls=2"
+})
+class RouteBulkheadsTest {
+
+	static final CountDownLatch release = new CountDownLatch(1);
+	static final CountDownLatch ordersHeld = new CountDownLatch(2);
+
+	@RegisterExtension
+	static final StubUpstream orders = stub(true);
+	@RegisterExtension
+	static final StubUpstream users = stub(false);
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${foodDelivery.app.jwt.secret}")
+	String jwtSecret;
+
+	@DynamicPropertySource
+	static void endpoints(DynamicPropertyRegistry registry) {
+		registry.add("gateway.loadbalancer.services.order-service.endpoints", orders::url);
+		registry.add("gateway.loadbalancer.services.user-service.endpoints", users::url);
+	}
+
+	@AfterAll
+	static void releaseStubs() {
+		release.countDown();
+	}
+
+	@Test
+	void fullRouteRejectsWithoutStarvingOtherRoutes() throws Exception {
+		HttpRequest order = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/1"))
+				.header("Authorization", "Bearer " + token())
+				.build();
+		List<CompletableFuture<HttpResponse<String>>> held = List.of(
+				client.sendAsync(order, HttpResponse.BodyHandlers.ofString()),
+				client.sendAsync(order, HttpResponse.BodyHandlers.ofString()));
+		// Both upstreams have answered with headers and are still streaming their bodies
+		assertThat(ordersHeld.await(5, TimeUnit.SECONDS)).isTrue();
+
+		long start = System.nanoTime();
+		HttpResponse<String> rejected = client.send(order, HttpResponse.BodyHandlers.ofString());
+		assertThat(rejected.statusCode()).isEqualTo(503);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+
+		HttpResponse<String> login = client.send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/ping")).build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(login.statusCode()).isEqualTo(200);
+
+		release.countDown();
+		for (CompletableFuture<HttpResponse<String>> response : held) {
+			assertThat(response.get(5, TimeUnit.SECONDS).body()).isEqualTo("ok");
+		}
+		assertThat(meterRegistry.get("gateway.bulkhead.rejected").tag("route", "order_service").counter().count())
+				.isEqualTo(1);
+	}
+
+	private String token() {
+		return Jwts.builder()
+				.subject("alice")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+
+	private static StubUpstream stub(boolean hold) {
+		return StubUpstream.of(exchange -> {
+			// Headers and the first byte go out at once, the rest of the body only when released
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write('o');
+				out.flush();
+				if (hold) {
+					ordersHeld.countDown();
+					release.await(10, TimeUnit.SECONDS);
+				}
+				out.write('k');
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+}
@@ -0,0 +1,202 @@
+package com.foodDelivery.apiGateway.cache;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {
+		"gateway.routing.routes.docs.path=/docs",
+		"gateway.routing.routes.docs.service=user-service",
+		"gateway.routing.routes.docs.auth=none",
+		"gateway.routing.routes.docs.rate-limit=false",
+		"gateway.routing.routes.docs.cache=true",
+		"gateway.routing.routes.docs.rewrite-path=/v3/api-docs",
+		"gateway.cache.routes.docs.ttl=2s",
+		"gateway.coalescing.routes.docs.vary-on-authorization=false",
+		"gateway.routing.routes.plain.path=/plain",
+		"gateway.routing.routes.plain.service=user-service",
+		"gateway.routing.routes.plain.auth=none",
+		"gateway.routing.routes.plain.rate-limit=false",
+		"gateway.routing.routes.plain.compress=false",
+		"gateway.routing.routes.plain.cache=true",
+		"gateway.cache.routes.plain.ttl=1m",
+		"gateway.routing.routes.public.path=/public",
+		"gateway.routing.routes.public.service=user-service",
+		"gateway.routing.routes.public.auth=none",
+		"gateway.routing.routes.public.rate-limit=false",
+		"gateway.routing.routes.public.cache=true",
+		"gateway.cache.routes.public.ttl=1m",
+		"gateway.routing.routes.encoded.path=/encoded",
+		"gateway.routing.routes.encoded.service=user-service",
+		"gateway.routing.routes.encoded.auth=none",
+		"gateway.routing.routes.encoded.rate-limit=false",
+		"gateway.routing.routes.encoded.compress=false",
+		"gateway.routing.routes.encoded.cache=true",
+		"gateway.cache.routes.encoded.ttl=1m",
+		"gateway.routing.routes.untagged.path=/untagged",
+		"gateway.routing.routes.untagged.service=user-service",
+		"gateway.routing.routes.untagged.auth=none",
+		"gateway.routing.routes.untagged.rate-limit=false",
+		"gateway.routing.routes.untagged.compress=false",
+		"gateway.routing.routes.untagged.cache=true",
+		"gateway.cache.routes.untagged.ttl=1s"
+})
+class GatewayResponseCacheTest {
+
+	static final String ETAG = "\"docs-v1\"";
+	static final AtomicInteger fullResponses = new AtomicInteger();
+	static final AtomicInteger notModifiedResponses = new AtomicInteger();
+	static final Map<String, AtomicInteger> upstreamCalls = new ConcurrentHashMap<>();
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.create()
+			.route("/v3/api-docs", exchange -> {
+				exchange.getResponseHeaders().set("ETag", ETAG);
+				if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+					notModifiedResponses.incrementAndGet();
+					StubUpstream.respond(exchange, 304, "");
+					return;
+				}
+				fullResponses.incrementAndGet();
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				StubUpstream.respond(exchange, 200, "{\"openapi\":\"3.0.1\"}");
+			})
+			.route("/plain", exchange -> respond(exchange, "per caller"))
+			.route("/public", exchange -> {
+				exchange.getResponseHeaders().set("Cache-Control", "public, max-age=60");
+				respond(exchange, "shared");
+			})
+			.route("/untagged", exchange -> {
+				if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+					upstreamCalls.computeIfAbsent("/untagged", path -> new AtomicInteger()).incrementAndGet();
+					StubUpstream.respond(exchange, 304, "");
+					return;
+				}
+				respond(exchange, "untagged");
+			})
+			.route("/encoded", exchange -> {
+				exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+				String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+				if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+					// Stands in for a gzip body; only the headers matter here
+					exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+					respond(exchange, "gzip");
+				} else {
+					respond(exchange, "identity");
+				}
+			});
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@Test
+	void servesFromCacheAndRevalidatesWithEtag() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		URI docs = URI.create("http://localhost:" + port + "/docs");
+
+		HttpResponse<String> first = client.send(HttpRequest.newBuilder(docs).build(), HttpResponse.BodyHandlers.ofString());
+		HttpResponse<String> second = client.send(HttpRequest.newBuilder(docs).build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(first.statusCode()).isEqualTo(200);
+		assertThat(second.body()).isEqualTo(first.body()).isEqualTo("{\"openapi\":\"3.0.1\"}");
+		assertThat(second.headers().firstValue("Age")).isPresent();
+		assertThat(fullResponses.get()).isEqualTo(1);
+
+		HttpResponse<String> conditional = client.send(HttpRequest.newBuilder(docs).header("If-None-Match", ETAG).build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(conditional.statusCode()).isEqualTo(304);
+		// A list, with the weak form the compressor hands out
+		HttpResponse<String> weakConditional = client.send(HttpRequest.newBuilder(docs)
+				.header("If-None-Match", "\"other\", W/" + ETAG).build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(weakConditional.statusCode()).isEqualTo(304);
+		assertThat(fullResponses.get()).isEqualTo(1);
+		assertThat(notModifiedResponses.get()).isZero();
+
+		Thread.sleep(2500);
+		HttpResponse<String> afterExpiry = client.send(HttpRequest.newBuilder(docs).build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(afterExpiry.statusCode()).isEqualTo(200);
+		assertThat(afterExpiry.body()).isEqualTo(first.body());
+		assertThat(fullResponses.get()).isEqualTo(1);
+		assertThat(notModifiedResponses.get()).isEqualTo(1);
+	}
+
+	@Test
+	void answersToAuthorizedRequestsAreOnlySharedWhenPublic() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		for (int i = 0; i < 2; i++) {
+			for (String path : new String[]{"/plain", "/public"}) {
+				HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+						.header("Authorization", "Bearer caller-" + i).build(), HttpResponse.BodyHandlers.ofString());
+				assertThat(response.statusCode()).isEqualTo(200);
+			}
+		}
+		assertThat(upstreamCalls.get("/plain").get()).isEqualTo(2);
+		assertThat(upstreamCalls.get("/public").get()).isEqualTo(1);
+	}
+
+	@Test
+	void keysEntriesOnAcceptEncoding() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		URI encoded = URI.create("http://localhost:" + port + "/encoded");
+
+		HttpResponse<String> gzip = client.send(HttpRequest.newBuilder(encoded).header("Accept-Encoding", "gzip").build(),
+				HttpResponse.BodyHandlers.ofString());
+		HttpResponse<String> identity = client.send(HttpRequest.newBuilder(encoded).build(), HttpResponse.BodyHandlers.ofString());
+		HttpResponse<String> gzipAgain = client.send(HttpRequest.newBuilder(encoded).header("Accept-Encoding", "gzip").build(),
+				HttpResponse.BodyHandlers.ofString());
+
+		assertThat(gzip.headers().firstValue("Content-Encoding")).contains("gzip");
+		assertThat(identity.headers().firstValue("Content-Encoding")).isEmpty();
+		assertThat(identity.body()).isEqualTo("identity");
+		assertThat(gzipAgain.headers().firstValue("Content-Encoding")).contains("gzip");
+		assertThat(upstreamCalls.get("/encoded").get()).isEqualTo(2);
+	}
+
+	@Test
+	void passesThroughNotModifiedForTheClientsOwnValidator() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		URI untagged = URI.create("http://localhost:" + port + "/untagged");
+
+		assertThat(client.send(HttpRequest.newBuilder(untagged).build(), HttpResponse.BodyHandlers.ofString())
+				.statusCode()).isEqualTo(200);
+		Thread.sleep(1200);
+
+		// The stale entry has no ETag, so the upstream's 304 only answers the client's If-None-Match
+		HttpResponse<String> conditional = client.send(HttpRequest.newBuilder(untagged)
+				.header("If-None-Match", "\"client-v1\"").build(), HttpResponse.BodyHandlers.ofString());
+		assertThat(conditional.statusCode()).isEqualTo(304);
+		assertThat(conditional.body()).isEmpty();
+
+		HttpResponse<String> unconditional = client.send(HttpRequest.newBuilder(untagged).build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(unconditional.statusCode()).isEqualTo(200);
+		assertThat(unconditional.body()).isEqualTo("untagged");
+		assertThat(upstreamCalls.get("/untagged").get()).isEqualTo(3);
+	}
+
+	private static void respond(HttpExchange exchange, String body) throws IOException {
+		upstreamCalls.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+		exchange.getResponseHeaders().set("Content-Type", "text/plain");
+		StubUpstream.respond(exchange, 200, body);
+	}
+}
@@ -0,0 +1,173 @@
+package com.foodDelivery.apiGateway.cache;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import com.sun.net.httpserver.HttpExchange;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {
+		"gateway.cache.enabled=false",
+		"gateway.routing.routes.docs.path=/docs",
+		"gateway.routing.routes.docs.service=user-service",
+		"gateway.routing.routes.docs.auth=none",
+		"gateway.routing.routes.docs.rate-limit=false",
+		"gateway.routing.routes.docs.cache=true",
+		"gateway.routing.routes.docs.rewrite-path=/v3/api-docs",
+		"gateway.coalescing.routes.docs.vary-on-authorization=false",
+		"gateway.routing.routes.profile.path=/profile",
+		"gateway.routing.routes.profile.service=user-service",
+		"gateway.routing.routes.profile.auth=none",
+		"gateway.routing.routes.profile.rate-limit=false",
+		"gateway.routing.routes.profile.cache=true",
+		"gateway.coalescing.routes.profile.vary-on-authorization=false",
+		"gateway.routing.routes.menu.path=/menu",
+		"gateway.routing.routes.menu.service=user-service",
+		"gateway.routing.routes.menu.auth=none",
+		"gateway.routing.routes.menu.rate-limit=false",
+		"gateway.routing.routes.menu.cache=true",
+		"gateway.coalescing.routes.menu.vary-on-authorization=false",
+		"gateway.routing.routes.account.path=/account",
+		"gateway.routing.routes.account.service=user-service",
+		"gateway.routing.routes.account.auth=none",
+		"gateway.routing.routes.account.rate-limit=false",
+		"gateway.routing.routes.account.cache=true",
+		"gateway.coalescing.routes.account.vary-on-authorization=false"
+})
+class RequestCoalescerTest {
+
+	static final int CONCURRENT_REQUESTS = 20;
+	static final AtomicInteger upstreamCalls = new AtomicInteger();
+	static final AtomicInteger privateCalls = new AtomicInteger();
+	static final AtomicInteger menuCalls = new AtomicInteger();
+	static final AtomicInteger accountCalls = new AtomicInteger();
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.create()
+			.route("/v3/api-docs", exchange -> {
+				upstreamCalls.incrementAndGet();
+				sleep(1000);
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				StubUpstream.respond(exchange, 200, "{\"openapi\":\"3.0.1\"}");
+			})
+			.route("/profile", exchange -> {
+				privateCalls.incrementAndGet();
+				sleep(500);
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.getResponseHeaders().set("Cache-Control", "private");
+				StubUpstream.respond(exchange, 200, "{\"username\":\"alice\"}");
+			})
+			.route("/menu", exchange -> {
+				menuCalls.incrementAndGet();
+				respondSlowly(exchange, "public, max-age=30");
+			})
+			.route("/account", exchange -> {
+				accountCalls.incrementAndGet();
+				respondSlowly(exchange, null);
+			});
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@Test
+	void identicalConcurrentGetsShareOneUpstreamCall() {
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder(
+				URI.create("http://localhost:" + port + "/docs")).build();
+
+		List<HttpResponse<String>> responses = IntStream.range(0, CONCURRENT_REQUESTS)
+				.mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+				.toList()
+				.stream()
+				.map(CompletableFuture::join)
+				.toList();
+
+		assertThat(responses).allSatisfy(response -> {
+			assertThat(response.statusCode()).isEqualTo(200);
+			assertThat(response.body()).isEqualTo("{\"openapi\":\"3.0.1\"}");
+		});
+		double collapsed = meterRegistry.get("gateway.coalescing.requests")
+				.tag("route", "docs").tag("result", "collapsed").counter().count();
+		assertThat(upstreamCalls.get()).isLessThan(CONCURRENT_REQUESTS / 2);
+		assertThat(collapsed + upstreamCalls.get()).isEqualTo(CONCURRENT_REQUESTS);
+	}
+
+	@Test
+	void privateResponsesAreNeverShared() {
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder(
+				URI.create("http://localhost:" + port + "/profile")).build();
+
+		List<HttpResponse<String>> responses = IntStream.range(0, 5)
+				.mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+				.toList()
+				.stream()
+				.map(CompletableFuture::join)
+				.toList();
+
+		assertThat(responses).allSatisfy(response -> assertThat(response.statusCode()).isEqualTo(200));
+		assertThat(privateCalls.get()).isEqualTo(5);
+	}
+
+	@Test
+	void differentCallersOnlyShareExplicitlyPublicResponses() {
+		HttpClient client = HttpClient.newHttpClient();
+
+		for (String path : List.of("/menu", "/account")) {
+			List<HttpResponse<String>> responses = IntStream.range(0, CONCURRENT_REQUESTS)
+					.mapToObj(i -> client.sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+							.header("Authorization", "Bearer caller-" + i).build(), HttpResponse.BodyHandlers.ofString()))
+					.toList()
+					.stream()
+					.map(CompletableFuture::join)
+					.toList();
+			assertThat(responses).allSatisfy(response -> assertThat(response.statusCode()).isEqualTo(200));
+		}
+
+		assertThat(menuCalls.get()).isLessThan(CONCURRENT_REQUESTS / 2);
+		// Not marked public: every caller gets its own upstream answer
+		assertThat(accountCalls.get()).isEqualTo(CONCURRENT_REQUESTS);
+	}
+
+	private static void respondSlowly(HttpExchange exchange, String cacheControl) throws IOException {
+		sleep(500);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		if (cacheControl != null) {
+			exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+		}
+		StubUpstream.respond(exchange, 200, "{}");
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.foodDelivery.apiGateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheStoreTest {
+
+	private static CachedResponse response(int bodySize) {
+		return new CachedResponse(200, new HttpHeaders(), new byte[bodySize], null, 0, 1000);
+	}
+
+	// Each entry takes 2 * key length + body + 128 bytes; three of them fit
+	private final ResponseCacheStore store = new ResponseCacheStore(3 * (2 + 200 + 128));
+
+	@Test
+	void evictsLeastRecentlyUsedEntry() {
+		store.put("a", response(200));
+		store.put("b", response(200));
+		store.put("c", response(200));
+		store.get("a");
+
+		store.put("d", response(200));
+
+		assertThat(store.get("b")).isNull();
+		assertThat(store.get("a")).isNotNull();
+		assertThat(store.get("c")).isNotNull();
+		assertThat(store.get("d")).isNotNull();
+		assertThat(store.evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void reinsertedEntryIsNotEvictedEarly() {
+		store.put("a", response(200));
+		store.remove("a");
+		store.put("b", response(200));
+		store.put("a", response(200));
+		store.put("c", response(200));
+
+		store.put("d", response(200));
+
+		assertThat(store.get("b")).isNull();
+		assertThat(store.get("a")).isNotNull();
+		assertThat(store.size()).isEqualTo(3);
+		assertThat(store.bytes()).isEqualTo(3 * (2 + 200 + 128));
+	}
+}
@@ -0,0 +1,56 @@
+package com.foodDelivery.apiGateway.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingClientHttpRequestFactoryTest {
+
+	private final List<String> used = new ArrayList<>();
+	private final RoutingClientHttpRequestFactory factory = new RoutingClientHttpRequestFactory(
+			Map.of("user-service", recording("user-service"), "order-service", recording("order-service")),
+			recording("default"), List.of());
+
+	@Test
+	void routesExactlyTheCurrentReplicasAndKeepsTheConfiguredAuthority() throws IOException {
+		factory.bind("user-service:8080", "user-service");
+		factory.rebind("user-service", List.of("10.0.0.1:8080", "10.0.0.2:8080"));
+		factory.rebind("user-service", List.of("10.0.0.2:8080", "10.0.0.3:8080"));
+
+		assertThat(route("http://10.0.0.1:8080/api/users")).isEqualTo("default");
+		assertThat(route("http://10.0.0.2:8080/api/users")).isEqualTo("user-service");
+		assertThat(route("http://10.0.0.3:8080/api/users")).isEqualTo("user-service");
+		assertThat(route("http://user-service:8080/api/users")).isEqualTo("user-service");
+	}
+
+	@Test
+	void leavesAnAuthorityAnotherUpstreamHasSinceClaimed() throws IOException {
+		factory.rebind("user-service", List.of("10.0.0.1:8080"));
+		// The address was recycled for an order-service pod
+		factory.rebind("order-service", List.of("10.0.0.1:8080"));
+		factory.rebind("user-service", List.of("10.0.0.2:8080"));
+
+		assertThat(route("http://10.0.0.1:8080/api/orders")).isEqualTo("order-service");
+	}
+
+	private String route(String uri) throws IOException {
+		used.clear();
+		factory.createRequest(URI.create(uri), HttpMethod.GET);
+		return used.get(0);
+	}
+
+	private ClientHttpRequestFactory recording(String name) {
+		return (uri, method) -> {
+			used.add(name);
+			return null;
+		};
+	}
+}
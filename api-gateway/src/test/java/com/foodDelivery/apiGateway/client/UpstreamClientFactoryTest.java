@@ -0,0 +1,71 @@
+package com.foodDelivery.apiGateway.client;
+
+import com.foodDelivery.apiGateway.config.UpstreamClientProperties;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamClientFactoryTest {
+
+	private static final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange -> {
+		clientPorts.add(exchange.getRemoteAddress().getPort());
+		StubUpstream.respond(exchange, 200, "ok");
+	});
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final List<AutoCloseable> resources = new ArrayList<>();
+
+	@AfterEach
+	void stop() throws Exception {
+		for (AutoCloseable resource : resources) {
+			resource.close();
+		}
+	}
+
+	@Test
+	void reusesKeepAliveConnectionsAndRecordsPoolMetrics() throws IOException {
+		UpstreamClientProperties.Settings settings = new UpstreamClientProperties.Settings();
+		settings.setMaxConnections(4);
+		ClientHttpRequestFactory factory = new UpstreamClientFactory(registry, null, resources)
+				.create("user-service", settings);
+
+		URI uri = URI.create(upstream.url() + "/api/auth/ping");
+		for (int i = 0; i < 10; i++) {
+			try (ClientHttpResponse response = factory.createRequest(uri, HttpMethod.GET).execute()) {
+				assertThat(response.getStatusCode().value()).isEqualTo(200);
+				response.getBody().readAllBytes();
+			}
+		}
+
+		assertThat(clientPorts).hasSize(1);
+		assertThat(registry.get("gateway.upstream.pool.wait").tag("upstream", "user-service").timer().count())
+				.isEqualTo(10);
+		assertThat(registry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "user-service").gauge().value())
+				.isEqualTo(4);
+	}
+
+	@Test
+	void routesRequestsByUpstreamAuthority() {
+		assertThat(RoutingClientHttpRequestFactory.authority(URI.create("http://user-service:8081/api")))
+				.isEqualTo("user-service:8081");
+		assertThat(RoutingClientHttpRequestFactory.authority(URI.create("https://orders.internal/api")))
+				.isEqualTo("orders.internal:443");
+	}
+}
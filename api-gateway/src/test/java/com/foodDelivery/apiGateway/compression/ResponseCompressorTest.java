@@ -0,0 +1,112 @@
+package com.foodDelivery.apiGateway.compression;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest
+class ResponseCompressorTest {
+
+	static final String LARGE_JSON = "[" + "{\"username\":\"alice\",\"role\":\"CUSTOMER\"},".repeat(200) + "{}]";
+	static final String SMALL_JSON = "{\"status\":\"ok\"}";
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.create()
+			.route("/api/auth/large", exchange -> send(exchange, LARGE_JSON.getBytes(StandardCharsets.UTF_8), null))
+			.route("/api/auth/small", exchange -> send(exchange, SMALL_JSON.getBytes(StandardCharsets.UTF_8), null))
+			.route("/api/auth/encoded", exchange -> {
+				ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+				try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+					out.write(LARGE_JSON.getBytes(StandardCharsets.UTF_8));
+				}
+				send(exchange, gzipped.toByteArray(), "gzip");
+			});
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@Test
+	void compressesLargeJsonWithPreferredEncoding() throws Exception {
+		HttpResponse<byte[]> gzip = get("/api/auth/large", "deflate;q=0.5, gzip");
+		assertThat(gzip.headers().firstValue("Content-Encoding")).hasValue("gzip");
+		assertThat(gzip.headers().allValues("Vary")).anyMatch(vary -> vary.contains("Accept-Encoding"));
+		assertThat(gzip.body().length).isLessThan(LARGE_JSON.length() / 4);
+		assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(gzip.body())))).isEqualTo(LARGE_JSON);
+
+		HttpResponse<byte[]> deflate = get("/api/auth/large", "gzip;q=0, deflate");
+		assertThat(deflate.headers().firstValue("Content-Encoding")).hasValue("deflate");
+		assertThat(decode(new InflaterInputStream(new ByteArrayInputStream(deflate.body())))).isEqualTo(LARGE_JSON);
+
+		// Deflaters go back to the pool, so repeated responses stay correct
+		for (int i = 0; i < 5; i++) {
+			HttpResponse<byte[]> again = get("/api/auth/large", "gzip");
+			assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(again.body())))).isEqualTo(LARGE_JSON);
+		}
+	}
+
+	@Test
+	void leavesSmallUnacceptedAndEncodedResponsesAlone() throws Exception {
+		HttpResponse<byte[]> small = get("/api/auth/small", "gzip");
+		assertThat(small.headers().firstValue("Content-Encoding")).isEmpty();
+		assertThat(small.headers().firstValueAsLong("Content-Length")).hasValue(SMALL_JSON.length());
+		assertThat(new String(small.body(), StandardCharsets.UTF_8)).isEqualTo(SMALL_JSON);
+
+		HttpResponse<byte[]> identity = get("/api/auth/large", "identity");
+		assertThat(identity.headers().firstValue("Content-Encoding")).isEmpty();
+		assertThat(new String(identity.body(), StandardCharsets.UTF_8)).isEqualTo(LARGE_JSON);
+
+		HttpResponse<byte[]> encoded = get("/api/auth/encoded", "gzip");
+		assertThat(encoded.headers().allValues("Content-Encoding")).containsExactly("gzip");
+		assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(encoded.body())))).isEqualTo(LARGE_JSON);
+	}
+
+	private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Accept-Encoding", acceptEncoding)
+				.build();
+		HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		assertThat(response.statusCode()).isEqualTo(200);
+		return response;
+	}
+
+	private static String decode(InputStream in) throws IOException {
+		try (in) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void send(HttpExchange exchange, byte[] body, String contentEncoding) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		if (contentEncoding != null) {
+			exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+		}
+		StubUpstream.respond(exchange, 200, body);
+	}
+}
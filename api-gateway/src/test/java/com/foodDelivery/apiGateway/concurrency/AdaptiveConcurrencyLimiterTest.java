@@ -0,0 +1,42 @@
+package com.foodDelivery.apiGateway.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void holdsTheSlotUntilTheBodyIsWritten() throws Exception {
+		AdaptiveConcurrencyProperties properties = new AdaptiveConcurrencyProperties();
+		properties.getDefaults().setInitialLimit(1);
+		properties.getDefaults().setMinLimit(1);
+		HandlerFilterFunction<ServerResponse, ServerResponse> filter =
+				new AdaptiveConcurrencyLimiter(properties, meterRegistry).limit("orders");
+		ServerRequest request = mock(ServerRequest.class);
+
+		ServerResponse first = filter.filter(request, ignored -> ServerResponse.ok().build());
+		assertThat(inFlight()).isEqualTo(1);
+		assertThat(filter.filter(request, ignored -> ServerResponse.ok().build()).statusCode().value()).isEqualTo(503);
+
+		first.writeTo(new MockHttpServletRequest(), new MockHttpServletResponse(), List::of);
+		assertThat(inFlight()).isZero();
+		assertThat(filter.filter(request, ignored -> ServerResponse.ok().build()).statusCode().value()).isEqualTo(200);
+	}
+
+	private double inFlight() {
+		return meterRegistry.get("gateway.concurrency.inflight").tag("service", "orders").gauge().value();
+	}
+}
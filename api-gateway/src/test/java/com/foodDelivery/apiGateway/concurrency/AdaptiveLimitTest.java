@@ -0,0 +1,64 @@
+package com.foodDelivery.apiGateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveLimitTest {
+
+	private final AdaptiveConcurrencyProperties properties = new AdaptiveConcurrencyProperties();
+
+	private AdaptiveLimit newLimit(int initial) {
+		AdaptiveConcurrencyProperties.Limits limits = new AdaptiveConcurrencyProperties.Limits();
+		limits.setInitialLimit(initial);
+		limits.setMinLimit(5);
+		limits.setMaxLimit(200);
+		return new AdaptiveLimit(limits, properties);
+	}
+
+	// Keeps the limit saturated, as it would be under load, and completes one call with the given latency
+	private static void saturatedCall(AdaptiveLimit limit, long rttMillis) {
+		while (limit.tryAcquire()) {
+			// fill up
+		}
+		limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+		while (limit.inFlight() > 0) {
+			limit.onSuccess(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+		}
+	}
+
+	@Test
+	void rejectsOnceLimitIsReached() {
+		AdaptiveLimit limit = newLimit(10);
+		for (int i = 0; i < 10; i++) {
+			assertThat(limit.tryAcquire()).isTrue();
+		}
+		assertThat(limit.tryAcquire()).isFalse();
+		assertThat(limit.inFlight()).isEqualTo(10);
+	}
+
+	@Test
+	void growsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+		AdaptiveLimit limit = newLimit(20);
+		for (int i = 0; i < 20; i++) {
+			saturatedCall(limit, 10);
+		}
+		int grown = limit.limit();
+		assertThat(grown).isGreaterThan(20);
+
+		saturatedCall(limit, 100);
+		assertThat(limit.limit()).isLessThan(grown);
+	}
+
+	@Test
+	void backsOffOnFailureButNotBelowMinimum() {
+		AdaptiveLimit limit = newLimit(10);
+		for (int i = 0; i < 100; i++) {
+			limit.tryAcquire();
+			limit.onFailure();
+		}
+		assertThat(limit.limit()).isEqualTo(5);
+	}
+}
@@ -0,0 +1,91 @@
+package com.foodDelivery.apiGateway.filters;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {"gateway.hedging.enabled=false", "foodDelivery.app.identity.ttl=30s"})
+class IdentityHeaderSignerTest {
+
+	static final String FORGED = "YWRtaW4KUk9MRV9BRE1JTgo5MjIzMzcyMDM2ODU0Nzc1ODA3.forged";
+
+	static final Queue<String> upstreamIdentities = new ConcurrentLinkedQueue<>();
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange -> {
+		String identity = exchange.getRequestHeaders().getFirst(IdentityHeaderSigner.IDENTITY_HEADER);
+		upstreamIdentities.add(identity == null ? "" : identity);
+		StubUpstream.respond(exchange, 200, "");
+	});
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@Value("${foodDelivery.app.jwt.secret}")
+	String jwtSecret;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@BeforeEach
+	void clear() {
+		upstreamIdentities.clear();
+	}
+
+	@Test
+	void stripsClientSuppliedIdentityOnUnauthenticatedRoutes() throws Exception {
+		assertThat(send("/api/auth/ping", null).statusCode()).isEqualTo(200);
+
+		assertThat(upstreamIdentities.remove()).isEmpty();
+	}
+
+	@Test
+	void capsIdentityLifetimeForTokensWithoutExpiry() throws Exception {
+		String token = Jwts.builder()
+				.subject("alice")
+				.signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		long before = System.currentTimeMillis();
+
+		assertThat(send("/api/users/1", "Bearer " + token).statusCode()).isEqualTo(200);
+
+		String identity = upstreamIdentities.remove();
+		assertThat(identity).isNotEqualTo(FORGED);
+		String payload = new String(Base64.getUrlDecoder().decode(identity.substring(0, identity.indexOf('.'))),
+				StandardCharsets.UTF_8);
+		long expiresAt = Long.parseLong(payload.split("\n", -1)[2]);
+		assertThat(expiresAt).isBetween(before, System.currentTimeMillis() + 30_000);
+	}
+
+	private HttpResponse<String> send(String path, String authorization) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header(IdentityHeaderSigner.IDENTITY_HEADER, FORGED);
+		if (authorization != null) {
+			request.header("Authorization", authorization);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
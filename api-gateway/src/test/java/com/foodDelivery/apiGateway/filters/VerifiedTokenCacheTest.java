@@ -0,0 +1,49 @@
+package com.foodDelivery.apiGateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void returnsCachedTokenUntilExpiry() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, registry);
+		VerifiedToken live = new VerifiedToken("alice", List.of("ROLE_CUSTOMER"), System.currentTimeMillis() + 60_000);
+		VerifiedToken expired = new VerifiedToken("bob", List.of(), System.currentTimeMillis() - 1);
+
+		assertThat(cache.get("token-a")).isNull();
+		cache.put("token-a", live);
+		cache.put("token-b", expired);
+
+		assertThat(cache.get("token-a")).isEqualTo(live);
+		assertThat(cache.get("token-b")).isNull();
+		assertThat(registry.get("gateway.jwt.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+		assertThat(registry.get("gateway.jwt.cache.requests").tag("result", "miss").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void staysWithinMaxSize() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, registry);
+		long exp = System.currentTimeMillis() + 60_000;
+		for (int i = 0; i < 50; i++) {
+			cache.put("token-" + i, new VerifiedToken("user" + i, List.of(), exp));
+		}
+
+		assertThat(cache.size()).isLessThanOrEqualTo(10);
+		assertThat(registry.get("gateway.jwt.cache.evictions").counter().count()).isGreaterThanOrEqualTo(40);
+	}
+
+	@Test
+	void disabledCacheNeverHits() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(false, 10, registry);
+		cache.put("token", new VerifiedToken("alice", List.of(), System.currentTimeMillis() + 60_000));
+
+		assertThat(cache.get("token")).isNull();
+	}
+}
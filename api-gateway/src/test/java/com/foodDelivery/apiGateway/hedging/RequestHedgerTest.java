@@ -0,0 +1,161 @@
+package com.foodDelivery.apiGateway.hedging;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {
+		"gateway.hedging.routes.user_service.delay=200ms",
+		"gateway.hedging.routes.order_service.delay=10s",
+		"gateway.hedging.routes.delivery_service.delay=100ms",
+		"gateway.loadbalancer.failure-threshold=1000",
+		"resilience4j.timelimiter.configs.default.timeout-duration=10s"
+})
+class RequestHedgerTest {
+
+	static final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+	@RegisterExtension
+	static final StubUpstream slow = stub(200, "slow", Duration.ofSeconds(2));
+	@RegisterExtension
+	static final StubUpstream fast = stub(200, "fast", Duration.ZERO);
+	@RegisterExtension
+	static final StubUpstream failing = stub(503, "down", Duration.ZERO);
+	@RegisterExtension
+	static final StubUpstream only = stub(503, "only", Duration.ofMillis(400));
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${foodDelivery.app.jwt.secret}")
+	String jwtSecret;
+
+	@DynamicPropertySource
+	static void endpoints(DynamicPropertyRegistry registry) {
+		registry.add("gateway.loadbalancer.services.user-service.endpoints", () -> slow.url() + "," + fast.url());
+		registry.add("gateway.loadbalancer.services.order-service.endpoints", () -> failing.url() + "," + fast.url());
+		registry.add("gateway.loadbalancer.services.delivery-service.endpoints", only::url);
+	}
+
+	@Test
+	void slowReplicaIsHedged() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			// The slow replica is hedged after 200ms, so every call is answered well before it would reply
+			assertAnsweredQuickly("/api/users/" + i);
+		}
+
+		assertThat(attempts("user_service", "hedge")).isPositive();
+		assertThat(meterRegistry.get("gateway.hedging.requests").tag("route", "user_service").counter().count())
+				.isEqualTo(10);
+	}
+
+	@Test
+	void failedAttemptIsRetriedOnAnotherReplica() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			assertAnsweredQuickly("/api/orders/" + i);
+		}
+
+		assertThat(attempts("order_service", "retry")).isPositive();
+		assertThat(attempts("order_service", "hedge")).isZero();
+	}
+
+	@Test
+	void singleReplicaIsNeitherHedgedNorRetried() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			HttpResponse<String> response = client.send(authorized("/api/delivery/" + i), HttpResponse.BodyHandlers.ofString());
+			assertThat(response.statusCode()).isEqualTo(503);
+			// Slow and failing, but there is nowhere else to send a second attempt
+			assertThat(calls.get("/api/delivery/" + i).get()).isEqualTo(1);
+		}
+
+		assertThat(attempts("delivery_service", "hedge")).isZero();
+		assertThat(attempts("delivery_service", "retry")).isZero();
+		assertThat(meterRegistry.get("gateway.hedging.skipped").tag("route", "delivery_service").counter().count())
+				.isEqualTo(6);
+	}
+
+	@Test
+	void retryBudgetRefusesOnceSpent() {
+		long[] now = {0};
+		RetryBudget budget = new RetryBudget(0.1, 1, () -> now[0]);
+
+		assertThat(budget.tryWithdraw()).isTrue();
+		assertThat(budget.tryWithdraw()).isFalse();
+
+		for (int i = 0; i < 10; i++) {
+			budget.onRequest();
+		}
+		assertThat(budget.tryWithdraw()).isTrue();
+		assertThat(budget.tryWithdraw()).isFalse();
+
+		now[0] += Duration.ofSeconds(1).toNanos();
+		assertThat(budget.tryWithdraw()).isTrue();
+	}
+
+	private void assertAnsweredQuickly(String path) throws Exception {
+		long start = System.nanoTime();
+		HttpResponse<String> response = client.send(authorized(path), HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).isEqualTo("fast");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+	}
+
+	private HttpRequest authorized(String path) {
+		String token = Jwts.builder()
+				.subject("alice")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("Authorization", "Bearer " + token)
+				.build();
+	}
+
+	private double attempts(String routeId, String type) {
+		return meterRegistry.get("gateway.hedging.attempts").tag("route", routeId).tag("type", type).counter().count();
+	}
+
+	private static StubUpstream stub(int status, String body, Duration delay) {
+		return StubUpstream.of(exchange -> {
+			calls.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicInteger()).incrementAndGet();
+			try {
+				Thread.sleep(delay.toMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			try {
+				StubUpstream.respond(exchange, status, body);
+			} catch (IOException e) {
+				// The gateway abandoned this attempt
+			}
+		});
+	}
+}
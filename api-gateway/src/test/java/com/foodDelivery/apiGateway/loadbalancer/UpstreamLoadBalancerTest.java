@@ -0,0 +1,66 @@
+package com.foodDelivery.apiGateway.loadbalancer;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = "gateway.loadbalancer.failure-threshold=3")
+class UpstreamLoadBalancerTest {
+
+	static final AtomicInteger healthyAHits = new AtomicInteger();
+	static final AtomicInteger healthyBHits = new AtomicInteger();
+	static final AtomicInteger failingHits = new AtomicInteger();
+
+	@RegisterExtension
+	static final StubUpstream healthyA = countingStub(200, healthyAHits);
+	@RegisterExtension
+	static final StubUpstream healthyB = countingStub(200, healthyBHits);
+	@RegisterExtension
+	static final StubUpstream failing = countingStub(503, failingHits);
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void endpoints(DynamicPropertyRegistry registry) {
+		registry.add("gateway.loadbalancer.services.user-service.endpoints",
+				() -> String.join(",", healthyA.url(), healthyB.url(), failing.url()));
+	}
+
+	@Test
+	void spreadsRequestsAndEjectsFailingReplica() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/ping")).build();
+
+		int unavailable = 0;
+		for (int i = 0; i < 60; i++) {
+			if (client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode() == 503) {
+				unavailable++;
+			}
+		}
+
+		assertThat(failingHits.get()).isEqualTo(3);
+		assertThat(unavailable).isEqualTo(3);
+		assertThat(healthyAHits.get()).isGreaterThan(10);
+		assertThat(healthyBHits.get()).isGreaterThan(10);
+	}
+
+	private static StubUpstream countingStub(int status, AtomicInteger hits) {
+		return StubUpstream.of(exchange -> {
+			hits.incrementAndGet();
+			StubUpstream.respond(exchange, status, "ok");
+		});
+	}
+}
@@ -0,0 +1,84 @@
+package com.foodDelivery.apiGateway.metrics;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@GatewayIntegrationTest(properties = "gateway.hedging.enabled=false")
+class GatewayMetricsTest {
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange -> StubUpstream.respond(exchange, 200, "ok"));
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@Value("${foodDelivery.app.jwt.secret}")
+	String jwtSecret;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+		registry.add("order.service.url", StubUpstream::closedUrl);
+	}
+
+	@Test
+	void exportsRouteUpstreamAndJwtTimers() throws Exception {
+		assertThat(get("/api/auth/ping", null).statusCode()).isEqualTo(200);
+		assertThat(get("/api/users/1", "Bearer not-a-jwt").statusCode()).isEqualTo(401);
+
+		String scrape = get("/actuator/prometheus", null).body();
+
+		assertThat(scrape).contains("gateway_route_latency_seconds_bucket{route=\"auth_service\",status=\"200\"");
+		assertThat(scrape).contains("gateway_upstream_latency_seconds_count{route=\"auth_service\",status=\"200\"} 1");
+		assertThat(scrape).contains("gateway_route_latency_seconds_count{route=\"user_service\",status=\"401\"} 1");
+		// Rejected before the upstream was called
+		assertThat(scrape).doesNotContain("gateway_upstream_latency_seconds_count{route=\"user_service\"");
+		assertThat(scrape).contains("gateway_jwt_verification_seconds_count{result=\"rejected\"} 1");
+	}
+
+	@Test
+	void countsFallbackInvocations() throws Exception {
+		String token = Jwts.builder()
+				.subject("alice")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+
+		// Nothing listens on the order service, so its breaker falls back
+		assertThat(get("/api/orders/1", "Bearer " + token).statusCode()).isEqualTo(503);
+
+		String scrape = get("/actuator/prometheus", null).body();
+		assertThat(scrape).contains("gateway_fallback_invocations_total{route=\"order_service\"} 1.0");
+		assertThat(scrape).contains("gateway_upstream_latency_seconds_count{route=\"order_service\",status=\"error\"} 1");
+		assertThat(scrape).contains("gateway_jwt_verification_seconds_count{result=\"valid\"}");
+	}
+
+	private HttpResponse<String> get(String path, String authorization) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+		if (authorization != null) {
+			request.header("Authorization", authorization);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,118 @@
+package com.foodDelivery.apiGateway.openapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@GatewayIntegrationTest(properties = {"gateway.openapi.enabled=true", "gateway.openapi.check-interval=200ms"})
+class OpenApiAggregatorTest {
+
+	static final String USER_DOCS = """
+			{"openapi":"3.0.1","paths":{"/api/users/{id}":{"get":{"responses":{"200":{"content":{"application/json":
+			{"schema":{"$ref":"#/components/schemas/MessageResponse"}}}}}}}},
+			"components":{"schemas":{"MessageResponse":{"type":"object","properties":{"message":{"type":"string"}}}}}}""";
+	static final String ORDER_DOCS = """
+			{"openapi":"3.0.1","paths":{"/api/orders/{id}":{"get":{"responses":{"200":{"content":{"application/json":
+			{"schema":{"$ref":"#/components/schemas/MessageResponse"}}}}}}}},
+			"components":{"schemas":{"MessageResponse":{"type":"object","properties":{"text":{"type":"string"}}}}}}""";
+
+	static final AtomicInteger userDocFetches = new AtomicInteger();
+	static final AtomicInteger orderDocFetches = new AtomicInteger();
+	// order-service is still starting: it fails its first few document requests
+	@RegisterExtension
+	static final StubUpstream userService = StubUpstream.create().route("/v3/api-docs", docs(USER_DOCS, userDocFetches, 0));
+	@RegisterExtension
+	static final StubUpstream orderService = StubUpstream.create().route("/v3/api-docs", docs(ORDER_DOCS, orderDocFetches, 3));
+
+	final HttpClient client = HttpClient.newHttpClient();
+	final ObjectMapper objectMapper = new ObjectMapper();
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstreams(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", userService::url);
+		registry.add("order.service.url", orderService::url);
+		registry.add("restaurant.service.url", StubUpstream::closedUrl);
+		registry.add("delivery.service.url", StubUpstream::closedUrl);
+	}
+
+	@Test
+	void servesMergedDocumentFromMemoryWithEtag() throws Exception {
+		JsonNode merged = awaitMergedWith("/api/orders/{id}");
+		assertThat(merged.path("paths").has("/api/users/{id}")).isTrue();
+		// Both services define MessageResponse differently, so order-service's copy is renamed
+		assertThat(merged.at("/components/schemas/MessageResponse/properties").has("message")).isTrue();
+		assertThat(merged.at("/components/schemas/order-service_MessageResponse/properties").has("text")).isTrue();
+		assertThat(merged.at("/paths/~1api~1orders~1{id}/get/responses/200/content/application~1json/schema/$ref").asText())
+				.isEqualTo("#/components/schemas/order-service_MessageResponse");
+
+		int fetchesBefore = userDocFetches.get();
+		HttpResponse<String> first = get("/aggregate/v3/api-docs", null);
+		String etag = first.headers().firstValue("ETag").orElseThrow();
+		for (int i = 0; i < 20; i++) {
+			assertThat(get("/aggregate/v3/api-docs", null).body()).isEqualTo(first.body());
+			assertThat(get("/aggregate/user-service/v3/api-docs", null).body()).isEqualTo(USER_DOCS);
+		}
+		assertThat(userDocFetches.get()).isEqualTo(fetchesBefore);
+
+		HttpResponse<String> revalidated = get("/aggregate/v3/api-docs", etag);
+		assertThat(revalidated.statusCode()).isEqualTo(304);
+		assertThat(revalidated.body()).isEmpty();
+	}
+
+	@Test
+	void servicesWithoutDocumentsAreUnavailableOrUnknown() throws Exception {
+		HttpResponse<String> restaurant = get("/aggregate/restaurant-service/v3/api-docs", null);
+		assertThat(restaurant.statusCode()).isEqualTo(503);
+		assertThat(restaurant.headers().firstValue("Retry-After")).isPresent();
+		assertThat(get("/aggregate/payment-service/v3/api-docs", null).statusCode()).isEqualTo(404);
+	}
+
+	private JsonNode awaitMergedWith(String path) {
+		JsonNode[] merged = new JsonNode[1];
+		await().atMost(Duration.ofSeconds(10)).until(() -> {
+			HttpResponse<String> response = get("/aggregate/v3/api-docs", null);
+			if (response.statusCode() != 200) {
+				return false;
+			}
+			merged[0] = objectMapper.readTree(response.body());
+			return merged[0].path("paths").has(path);
+		});
+		return merged[0];
+	}
+
+	private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+		if (ifNoneMatch != null) {
+			request.header("If-None-Match", ifNoneMatch);
+		}
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static HttpHandler docs(String docs, AtomicInteger fetches, int failures) {
+		return exchange -> {
+			boolean warmingUp = fetches.incrementAndGet() <= failures;
+			exchange.getResponseHeaders().set("Content-Type", warmingUp ? "text/plain" : "application/json");
+			StubUpstream.respond(exchange, warmingUp ? 503 : 200, warmingUp ? "starting" : docs);
+		};
+	}
+}
@@ -0,0 +1,59 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {
+		"gateway.ratelimit.enabled=true",
+		"gateway.hedging.enabled=false",
+		"gateway.ratelimit.per-client-ip.replenish-rate=1",
+		"gateway.ratelimit.per-client-ip.burst-capacity=2"
+})
+class GatewayRateLimiterTest {
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange -> StubUpstream.respond(exchange, 200, ""));
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@Test
+	void throttlesInvalidTokensPerForwardedClientBeforeVerification() throws Exception {
+		assertThat(get("198.51.100.1").statusCode()).isEqualTo(401);
+		assertThat(get("198.51.100.1").statusCode()).isEqualTo(401);
+
+		HttpResponse<String> throttled = get("198.51.100.1");
+		assertThat(throttled.statusCode()).isEqualTo(429);
+		assertThat(throttled.headers().firstValue("Retry-After")).isPresent();
+
+		// Another client behind the same (trusted, loopback) proxy has its own bucket
+		assertThat(get("198.51.100.2").statusCode()).isEqualTo(401);
+	}
+
+	private HttpResponse<String> get(String forwardedFor) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/1"))
+				.header("Authorization", "Bearer not-a-jwt")
+				.header("X-Forwarded-For", forwardedFor)
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,49 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenBucketStoreTest {
+
+	private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+	private static RateLimitProperties.Quota quota(int replenishRate, int burstCapacity) {
+		RateLimitProperties.Quota quota = new RateLimitProperties.Quota();
+		quota.setReplenishRate(replenishRate);
+		quota.setBurstCapacity(burstCapacity);
+		return quota;
+	}
+
+	@Test
+	void allowsBurstThenRejectsUntilRefilled() {
+		InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(100, now::get);
+		RateLimitProperties.Quota quota = quota(10, 5);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(store.tryConsume("client", quota)).isZero();
+		}
+		long wait = store.tryConsume("client", quota);
+		assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+		assertThat(store.tryConsume("other", quota)).isZero();
+
+		now.addAndGet(wait);
+		assertThat(store.tryConsume("client", quota)).isZero();
+		assertThat(store.tryConsume("client", quota)).isPositive();
+	}
+
+	@Test
+	void dropsIdleClientsWhenFull() {
+		InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(10, now::get);
+		RateLimitProperties.Quota quota = quota(10, 5);
+		for (int i = 0; i < 50; i++) {
+			store.tryConsume("client-" + i, quota);
+			now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+		}
+
+		assertThat(store.size()).isLessThanOrEqualTo(10);
+	}
+}
@@ -0,0 +1,43 @@
+package com.foodDelivery.apiGateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitPropertiesTest {
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+			.withUserConfiguration(Config.class);
+
+	@Test
+	void bindsPositiveQuotas() {
+		runner.withPropertyValues(
+						"gateway.ratelimit.defaults.replenish-rate=5",
+						"gateway.ratelimit.routes.orders.burst-capacity=1")
+				.run(context -> {
+					assertThat(context).hasNotFailed();
+					RateLimitProperties properties = context.getBean(RateLimitProperties.class);
+					assertThat(properties.getDefaults().getReplenishRate()).isEqualTo(5);
+					assertThat(properties.getRoutes().get("orders").getBurstCapacity()).isEqualTo(1);
+				});
+	}
+
+	@Test
+	void failsStartupOnAZeroOrNegativeQuotaAnywhere() {
+		for (String property : new String[] {
+				"gateway.ratelimit.defaults.replenish-rate=0",
+				"gateway.ratelimit.per-client-ip.burst-capacity=-1",
+				"gateway.ratelimit.routes.orders.replenish-rate=-5"}) {
+			runner.withPropertyValues(property).run(context -> assertThat(context).hasFailed()
+					.getFailure().rootCause().hasMessageContaining("must be greater than 0"));
+		}
+	}
+
+	@Configuration
+	@EnableConfigurationProperties(RateLimitProperties.class)
+	static class Config {
+	}
+}
@@ -0,0 +1,23 @@
+package com.foodDelivery.apiGateway.routes;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = {
+		"spring.threads.virtual.enabled=false",
+		"server.tomcat.threads.max=" + PlatformThreadProxyLoadTest.TOMCAT_MAX_THREADS
+})
+class PlatformThreadProxyLoadTest extends ProxyConcurrencyLoadTest {
+
+	static final int TOMCAT_MAX_THREADS = 200;
+
+	@Test
+	void inFlightRequestsAreCappedByTheTomcatThreadPool() {
+		LoadResult result = runLoad();
+
+		assertThat(result.succeeded()).isEqualTo(CONCURRENT_REQUESTS);
+		assertThat(result.peakInFlight()).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+	}
+}
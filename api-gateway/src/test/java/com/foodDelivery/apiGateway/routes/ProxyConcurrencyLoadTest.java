@@ -0,0 +1,102 @@
+package com.foodDelivery.apiGateway.routes;
+
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds {@link #CONCURRENT_REQUESTS} proxied requests open against a slow stub upstream and records
+ * how many of them the gateway manages to have in flight at the upstream at the same time.
+ * The time limiter is relaxed so a slow CI machine measures concurrency rather than tripping the 3s timeout,
+ * and bulkheads and adaptive concurrency limiting are off (as are rate limiting and background OpenAPI fetches in
+ * every {@code @GatewayIntegrationTest}) since the test is about raw concurrency.
+ */
+@TestPropertySource(properties = {
+		"resilience4j.timelimiter.configs.default.timeout-duration=30s",
+		"gateway.concurrency.enabled=false",
+		"gateway.bulkhead.enabled=false"
+})
+abstract class ProxyConcurrencyLoadTest {
+
+	static final int CONCURRENT_REQUESTS = 500;
+	static final Duration UPSTREAM_DELAY = Duration.ofMillis(500);
+
+	static final AtomicInteger inFlight = new AtomicInteger();
+	static final AtomicInteger maxInFlight = new AtomicInteger();
+	// Started afresh for each subclass, whose context reads its port
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange -> {
+		int current = inFlight.incrementAndGet();
+		maxInFlight.accumulateAndGet(current, Math::max);
+		try {
+			Thread.sleep(UPSTREAM_DELAY);
+			StubUpstream.respond(exchange, 200, "ok");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+			exchange.close();
+		}
+	}).backlog(1024).virtualThreads();
+
+	final Logger log = LoggerFactory.getLogger(getClass());
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@BeforeEach
+	void resetCounters() {
+		inFlight.set(0);
+		maxInFlight.set(0);
+	}
+
+	LoadResult runLoad() {
+		HttpClient client = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/ping"))
+				.timeout(Duration.ofSeconds(30))
+				.build();
+
+		long start = System.nanoTime();
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+		}
+		long succeeded = responses.stream()
+				.map(CompletableFuture::join)
+				.filter(response -> response.statusCode() == 200)
+				.count();
+		Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		LoadResult result = new LoadResult(succeeded, maxInFlight.get(), elapsed);
+		log.info("{}/{} succeeded, peak in-flight upstream calls {}, took {} ms",
+				result.succeeded(), CONCURRENT_REQUESTS, result.peakInFlight(), result.elapsed().toMillis());
+		return result;
+	}
+
+	record LoadResult(long succeeded, int peakInFlight, Duration elapsed) {
+	}
+}
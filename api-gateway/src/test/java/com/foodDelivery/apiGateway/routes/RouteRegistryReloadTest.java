@@ -0,0 +1,62 @@
+package com.foodDelivery.apiGateway.routes;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest
+class RouteRegistryReloadTest {
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange ->
+			StubUpstream.respond(exchange, 200, exchange.getRequestURI().getPath()));
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	ConfigurableEnvironment environment;
+
+	@Autowired
+	ApplicationEventPublisher events;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("restaurant.service.url", upstream::url);
+	}
+
+	@Test
+	void addsRouteWithoutRestart() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		HttpRequest menus = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/menus/7")).build();
+		assertThat(client.send(menus, HttpResponse.BodyHandlers.ofString()).statusCode()).isEqualTo(404);
+
+		environment.getPropertySources().addFirst(new MapPropertySource("reloaded-routes", Map.of(
+				"gateway.routing.routes.menu_service.path", "/api/menus/**",
+				"gateway.routing.routes.menu_service.service", "restaurant-service",
+				"gateway.routing.routes.menu_service.auth", "none")));
+		events.publishEvent(new EnvironmentChangeEvent(Set.of("gateway.routing.routes.menu_service.path")));
+
+		HttpResponse<String> response = client.send(menus, HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.body()).isEqualTo("/api/menus/7");
+	}
+}
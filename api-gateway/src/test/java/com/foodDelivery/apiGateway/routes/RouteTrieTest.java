@@ -0,0 +1,34 @@
+package com.foodDelivery.apiGateway.routes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteTrieTest {
+
+	@Test
+	void prefersExactThenLongestPrefix() {
+		RouteTrie<String> trie = new RouteTrie<>();
+		trie.add("/api/users/**", "users");
+		trie.add("/api/users/admin/**", "admin");
+		trie.add("/aggregate/user-service/v3/api-docs", "docs");
+
+		assertThat(trie.find("/api/users")).isEqualTo("users");
+		assertThat(trie.find("/api/users/42/orders")).isEqualTo("users");
+		assertThat(trie.find("/api/users/admin/roles")).isEqualTo("admin");
+		assertThat(trie.find("/aggregate/user-service/v3/api-docs")).isEqualTo("docs");
+		assertThat(trie.find("/aggregate/user-service/v3/api-docs/extra")).isNull();
+		assertThat(trie.find("/aggregate/user-service/v3")).isNull();
+		assertThat(trie.find("/api")).isNull();
+		assertThat(trie.find("/")).isNull();
+	}
+
+	@Test
+	void rejectsDuplicatePaths() {
+		RouteTrie<String> trie = new RouteTrie<>();
+		trie.add("/api/orders/**", "orders");
+
+		assertThatThrownBy(() -> trie.add("/api/orders/**", "again")).isInstanceOf(IllegalStateException.class);
+	}
+}
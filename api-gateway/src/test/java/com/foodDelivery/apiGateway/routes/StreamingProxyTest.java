@@ -0,0 +1,148 @@
+package com.foodDelivery.apiGateway.routes;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Proxies 200 MB in each direction and checks that retained heap stays far below the payload size,
+ * i.e. the gateway streams bodies instead of buffering them. Heap is sampled after a GC every
+ * {@link #SAMPLE_EVERY} bytes so only live objects are counted.
+ */
+@GatewayIntegrationTest(properties = {
+		"resilience4j.timelimiter.configs.default.timeout-duration=60s",
+		"gateway.upstream.defaults.read-timeout=60s"
+})
+class StreamingProxyTest {
+
+	static final long PAYLOAD = 200L * 1024 * 1024;
+	static final long SAMPLE_EVERY = 40L * 1024 * 1024;
+	static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+	static final AtomicLong uploaded = new AtomicLong();
+	static final AtomicLong uploadPeakGrowth = new AtomicLong();
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.create()
+			.route("/api/auth/download", exchange -> {
+				byte[] chunk = new byte[64 * 1024];
+				exchange.sendResponseHeaders(200, PAYLOAD);
+				try (OutputStream out = exchange.getResponseBody()) {
+					for (long sent = 0; sent < PAYLOAD; sent += chunk.length) {
+						out.write(chunk);
+					}
+				}
+			})
+			.route("/api/auth/upload", exchange -> {
+				long baseline = liveHeap();
+				long total = 0;
+				byte[] buffer = new byte[64 * 1024];
+				try (InputStream body = exchange.getRequestBody()) {
+					for (int n; (n = body.read(buffer)) != -1; ) {
+						if ((total + n) / SAMPLE_EVERY != total / SAMPLE_EVERY) {
+							uploadPeakGrowth.accumulateAndGet(liveHeap() - baseline, Math::max);
+						}
+						total += n;
+					}
+				}
+				uploaded.set(total);
+				StubUpstream.respond(exchange, 200, "");
+			});
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void upstreamProperties(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+	}
+
+	@Test
+	void streamsLargeResponseWithContentLength() throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/download")).build();
+		long baseline = liveHeap();
+
+		HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValueAsLong("Content-Length")).hasValue(PAYLOAD);
+
+		long received = 0;
+		long peakGrowth = 0;
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream body = response.body()) {
+			for (int n; (n = body.read(buffer)) != -1; ) {
+				if ((received + n) / SAMPLE_EVERY != received / SAMPLE_EVERY) {
+					peakGrowth = Math.max(peakGrowth, liveHeap() - baseline);
+				}
+				received += n;
+			}
+		}
+
+		assertThat(received).isEqualTo(PAYLOAD);
+		assertThat(peakGrowth).isLessThan(MAX_HEAP_GROWTH);
+	}
+
+	@Test
+	void streamsLargeChunkedUpload() throws Exception {
+		uploadPeakGrowth.set(0);
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/upload"))
+				// No length known up front, so the upload goes out chunked
+				.POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ZeroStream(PAYLOAD)))
+				.build();
+
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(uploaded.get()).isEqualTo(PAYLOAD);
+		assertThat(uploadPeakGrowth.get()).isLessThan(MAX_HEAP_GROWTH);
+	}
+
+	private static long liveHeap() {
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static final class ZeroStream extends InputStream {
+		private long remaining;
+
+		ZeroStream(long size) {
+			this.remaining = size;
+		}
+
+		@Override
+		public int read() {
+			if (remaining <= 0) {
+				return -1;
+			}
+			remaining--;
+			return 0;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int n = (int) Math.min(len, remaining);
+			Arrays.fill(b, off, off + n, (byte) 0);
+			remaining -= n;
+			return n;
+		}
+	}
+}
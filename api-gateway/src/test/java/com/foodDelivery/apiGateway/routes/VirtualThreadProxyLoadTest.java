@@ -0,0 +1,18 @@
+package com.foodDelivery.apiGateway.routes;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@GatewayIntegrationTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadProxyLoadTest extends ProxyConcurrencyLoadTest {
+
+	@Test
+	void holdsMoreInFlightRequestsThanThePlatformThreadPool() {
+		LoadResult result = runLoad();
+
+		assertThat(result.succeeded()).isEqualTo(CONCURRENT_REQUESTS);
+		assertThat(result.peakInFlight()).isGreaterThan(PlatformThreadProxyLoadTest.TOMCAT_MAX_THREADS);
+	}
+}
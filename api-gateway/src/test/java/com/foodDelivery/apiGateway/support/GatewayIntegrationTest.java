@@ -0,0 +1,28 @@
+package com.foodDelivery.apiGateway.support;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The whole gateway on a random port, proxying to {@link StubUpstream}s. The {@code integration-test} profile
+ * turns off the features most tests do not exercise and that would otherwise throttle them or call the stubs
+ * in the background (rate limiting, OpenAPI document fetches); a test that needs one sets it back in
+ * {@link #properties()}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("integration-test")
+public @interface GatewayIntegrationTest {
+
+	@AliasFor(annotation = SpringBootTest.class)
+	String[] properties() default {};
+}
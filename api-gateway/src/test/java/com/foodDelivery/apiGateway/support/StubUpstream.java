@@ -0,0 +1,134 @@
+package com.foodDelivery.apiGateway.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A stub upstream on a random local port. Register it on a static {@code @RegisterExtension} field and hand
+ * {@link #url()} to the gateway from a {@code @DynamicPropertySource}; it starts on first use and stops after
+ * the test class. A stub declared in an abstract base class starts afresh for every subclass.
+ * Each request gets its own handler thread, so a stub can hold many requests open at once. These are platform
+ * threads unless {@link #virtualThreads()} is asked for: a stub writing a large body pins a virtual thread's
+ * carrier, which on a single-CPU machine starves the gateway's own virtual threads.
+ */
+public final class StubUpstream implements BeforeAllCallback, AfterAllCallback {
+
+	private final Map<String, HttpHandler> handlers = new LinkedHashMap<>();
+	private int backlog;
+	private boolean virtualThreads;
+	private HttpServer server;
+	private ExecutorService executor;
+
+	private StubUpstream() {
+	}
+
+	public static StubUpstream create() {
+		return new StubUpstream();
+	}
+
+	/**
+	 * @return a stub answering every path with {@code handler}
+	 */
+	public static StubUpstream of(HttpHandler handler) {
+		return create().route("/", handler);
+	}
+
+	public StubUpstream route(String path, HttpHandler handler) {
+		handlers.put(path, handler);
+		return this;
+	}
+
+	/**
+	 * @param backlog pending connections the listening socket queues, for stubs that take many at once
+	 */
+	public StubUpstream backlog(int backlog) {
+		this.backlog = backlog;
+		return this;
+	}
+
+	/**
+	 * Handles requests on virtual threads instead, for stubs that hold hundreds of requests open by sleeping
+	 * rather than writing; a platform thread apiece for those starves the gateway of CPU.
+	 */
+	public StubUpstream virtualThreads() {
+		this.virtualThreads = true;
+		return this;
+	}
+
+	public String url() {
+		return "http://localhost:" + port();
+	}
+
+	public synchronized int port() {
+		if (server == null) {
+			start();
+		}
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public synchronized void beforeAll(ExtensionContext context) {
+		if (server == null) {
+			start();
+		}
+	}
+
+	@Override
+	public synchronized void afterAll(ExtensionContext context) {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+			server = null;
+		}
+	}
+
+	private void start() {
+		try {
+			server = HttpServer.create(new InetSocketAddress("localhost", 0), backlog);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not start stub upstream", e);
+		}
+		executor = virtualThreads
+				? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("stub-upstream-", 0).factory())
+				: Executors.newCachedThreadPool(Thread.ofPlatform().name("stub-upstream-", 0).daemon().factory());
+		server.setExecutor(executor);
+		handlers.forEach(server::createContext);
+		server.start();
+	}
+
+	public static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		respond(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	/**
+	 * @return the url of a local port nothing listens on, for an upstream that refuses connections
+	 */
+	public static String closedUrl() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return "http://localhost:" + socket.getLocalPort();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.foodDelivery.apiGateway.tracing;
+
+import com.foodDelivery.apiGateway.support.GatewayIntegrationTest;
+import com.foodDelivery.apiGateway.support.StubUpstream;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability
+@GatewayIntegrationTest(properties = "management.tracing.sampling.probability=1.0")
+class TraceContextPropagationTest {
+
+	static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+	static final String CLIENT_SPAN_ID = "00f067aa0ba902b7";
+
+	static final Queue<String> upstreamTraceparents = new ConcurrentLinkedQueue<>();
+	static final Queue<byte[]> exportedBatches = new ConcurrentLinkedQueue<>();
+
+	@RegisterExtension
+	static final StubUpstream upstream = StubUpstream.of(exchange -> {
+		String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+		if (traceparent != null) {
+			upstreamTraceparents.add(traceparent);
+		}
+		StubUpstream.respond(exchange, 200, "ok");
+	});
+
+	// Stands in for an OTLP/HTTP collector: keeps each exported protobuf batch
+	@RegisterExtension
+	static final StubUpstream collector = StubUpstream.of(exchange -> {
+		try (InputStream in = exchange.getRequestBody()) {
+			exportedBatches.add(in.readAllBytes());
+		}
+		StubUpstream.respond(exchange, 200, "");
+	});
+
+	final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	SdkTracerProvider tracerProvider;
+
+	@Value("${foodDelivery.app.jwt.secret}")
+	String jwtSecret;
+
+	@DynamicPropertySource
+	static void endpoints(DynamicPropertyRegistry registry) {
+		registry.add("user.service.url", upstream::url);
+		registry.add("management.otlp.tracing.endpoint", () -> collector.url() + "/v1/traces");
+	}
+
+	@Test
+	void inboundTraceReachesUpstreamThroughCircuitBreakerAndHedging() throws Exception {
+		// auth_service runs on the circuit breaker's executor, user_service additionally on the hedger's
+		for (String path : List.of("/api/auth/ping", "/api/users/1")) {
+			upstreamTraceparents.clear();
+			assertThat(send(path).statusCode()).isEqualTo(200);
+
+			String[] traceparent = upstreamTraceparents.remove().split("-");
+			assertThat(traceparent[1]).as(path).isEqualTo(TRACE_ID);
+			assertThat(traceparent[2]).as(path).isNotEqualTo(CLIENT_SPAN_ID);
+			assertThat(traceparent[3]).as(path).isEqualTo("01");
+		}
+	}
+
+	@Test
+	void routeSpansAreExportedToTheCollector() throws Exception {
+		assertThat(send("/api/auth/ping").statusCode()).isEqualTo(200);
+
+		assertThat(tracerProvider.forceFlush().join(10, TimeUnit.SECONDS).isSuccess()).isTrue();
+		byte[] traceId = HexFormat.of().parseHex(TRACE_ID);
+		byte[] routeSpan = "gateway auth_service".getBytes(StandardCharsets.UTF_8);
+		assertThat(exportedBatches).anySatisfy(batch -> {
+			assertThat(indexOf(batch, traceId)).isNotNegative();
+			assertThat(indexOf(batch, routeSpan)).isNotNegative();
+		});
+	}
+
+	private HttpResponse<String> send(String path) throws Exception {
+		String token = Jwts.builder()
+				.subject("alice")
+				.expiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header("traceparent", "00-" + TRACE_ID + "-" + CLIENT_SPAN_ID + "-01")
+				.header("Authorization", "Bearer " + token)
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static int indexOf(byte[] haystack, byte[] needle) {
+		for (int i = 0; i + needle.length <= haystack.length; i++) {
+			if (Arrays.equals(haystack, i, i + needle.length, needle, 0, needle.length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,95 @@
+package com.foodDelivery.userService.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Verifies the identity header the api-gateway attaches after it has verified the caller's JWT.
+ * Checking this HMAC-SHA256 is far cheaper than re-parsing and re-verifying the HS512 token.
+ */
+@Component
+public class InternalIdentityVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(InternalIdentityVerifier.class);
+
+    public static final String IDENTITY_HEADER = "X-Authenticated-Identity";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${foodDelivery.app.identity.trusted:true}")
+    private boolean trusted;
+
+    @Value("${foodDelivery.app.identity.secret}")
+    private String identitySecret;
+
+    private Mac prototype;
+
+    public record InternalIdentity(String subject, List<String> roles, long expiresAtMillis) {
+    }
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        prototype = Mac.getInstance(HMAC_ALGORITHM);
+        prototype.init(new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+    }
+
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    public Optional<InternalIdentity> verify(String header) {
+        int separator = header.indexOf('.');
+        if (separator <= 0) {
+            logger.warn("Malformed identity header");
+            return Optional.empty();
+        }
+
+        try {
+            String encodedPayload = header.substring(0, separator);
+            byte[] signature = Base64.getUrlDecoder().decode(header.substring(separator + 1));
+            byte[] expected = mac().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, signature)) {
+                logger.warn("Identity header signature mismatch");
+                return Optional.empty();
+            }
+
+            String[] parts = new String(Base64.getUrlDecoder().decode(encodedPayload), StandardCharsets.UTF_8)
+                    .split("\n", -1);
+            if (parts.length != 3) {
+                logger.warn("Malformed identity header payload");
+                return Optional.empty();
+            }
+
+            long expiresAt = Long.parseLong(parts[2]);
+            if (System.currentTimeMillis() >= expiresAt) {
+                logger.error("Identity header is expired");
+                return Optional.empty();
+            }
+
+            List<String> roles = parts[1].isEmpty() ? List.of() : Arrays.asList(parts[1].split(","));
+            return Optional.of(new InternalIdentity(parts[0], roles, expiresAt));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid identity header: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC implementation is not cloneable", e);
+        }
+    }
+}
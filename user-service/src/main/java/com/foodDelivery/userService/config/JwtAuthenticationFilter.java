@@ -26,27 +26,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtils jwtUtils;
+    private final InternalIdentityVerifier identityVerifier;
     private final UserDetailsServiceImpl userDetailsService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                // Get roles directly from token
-                List<SimpleGrantedAuthority> authorities = jwtUtils.getRolesFromJwtToken(jwt).stream()
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-
-                // Create authentication with username and roles from token
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            String identityHeader = request.getHeader(InternalIdentityVerifier.IDENTITY_HEADER);
+            if (identityVerifier.isTrusted() && StringUtils.hasText(identityHeader)) {
+                // Gateway already verified the JWT, build the authentication from its signed identity
+                identityVerifier.verify(identityHeader)
+                        .ifPresent(identity -> authenticate(request, identity.subject(), identity.roles()));
+            } else {
+                String jwt = parseJwt(request);
+                if (jwt != null) {
+                    // Username and roles come from a single verified parse of the token
+                    jwtUtils.parseToken(jwt)
+                            .ifPresent(principal -> authenticate(request, principal.subject(), principal.roles()));
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -55,6 +53,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, String username, List<String> roles) {
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        // Create authentication with username and roles from token
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(username, null, authorities);
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,11 @@
+package com.foodDelivery.userService.config;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JwtPrincipal(String subject, List<String> roles, Instant issuedAt, Instant expiresAt) {
+
+    public JwtPrincipal {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
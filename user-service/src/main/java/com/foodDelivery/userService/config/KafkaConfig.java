@@ -31,6 +31,9 @@ public class KafkaConfig {
 
     @Bean
     public KafkaTemplate<String, Object> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+        KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory());
+        // Records a producer span per send and writes the trace context into the record headers
+        template.setObservationEnabled(true);
+        return template;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.foodDelivery.userService.controller;
 
+import com.foodDelivery.userService.config.JwtPrincipal;
 import com.foodDelivery.userService.config.JwtUtils;
 import com.foodDelivery.userService.dto.*;
 import com.foodDelivery.userService.serviceInterfaces.UserService;
@@ -9,13 +10,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users")
@@ -26,6 +31,8 @@ public class UserController {
     private final UserService userService;
     private final JwtUtils jwtUtils;
     private static final String AUTHENTICATION_SERVICE = "authenticationService";
+    private static final int MAX_VALIDATION_BATCH = 1000;
+    private static final int MAX_PAGE_SIZE = 500;
 
     @GetMapping("/profile")
     @PreAuthorize("isAuthenticated()")
@@ -72,10 +79,8 @@ public class UserController {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
-            if (jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                log.info("User {} successfully logged out", username);
-            }
+            jwtUtils.parseToken(jwt)
+                    .ifPresent(principal -> log.info("User {} successfully logged out", principal.subject()));
         }
 
         return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
@@ -87,7 +92,8 @@ public class UserController {
             @RequestParam(required = false) String userName,
             @RequestParam String role) {
 
-        log.info("Validating role {} for userId: {}, userName: {}", role, userId, userName);
+        // Called on other services' hot paths, so this stays at debug
+        log.debug("Validating role {} for userId: {}, userName: {}", role, userId, userName);
 
         try {
             boolean isValid;
@@ -99,7 +105,7 @@ public class UserController {
                 return ResponseEntity.badRequest().body(false);
             }
 
-            log.info("Validation result: {}", isValid);
+            log.debug("Validation result: {}", isValid);
             return ResponseEntity.ok(isValid);
         } catch (Exception e) {
             log.error("Error validating user role: {}", e.getMessage());
@@ -107,11 +113,50 @@ public class UserController {
         }
     }
 
+    /**
+     * Validates many (userId, role) pairs in one call; the answers come back in request order.
+     */
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<Boolean>> validateUserRoles(@RequestBody List<RoleValidationRequest> requests) {
+        if (requests.size() > MAX_VALIDATION_BATCH) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Validating {} user roles", requests.size());
+
+        try {
+            return ResponseEntity.ok(userService.validateUserRolesAndEnabled(requests));
+        } catch (Exception e) {
+            log.error("Error validating user roles: {}", e.getMessage());
+            return ResponseEntity.ok(Collections.nCopies(requests.size(), false));
+        }
+    }
+
+    /**
+     * One page of users in id order. Pass the returned nextCursor as afterId for the next page.
+     */
     @GetMapping("/all-users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserProfileResponse>> getAllUsers() {
-        List<UserProfileResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<UserPageResponse> getAllUsers(
+            UserFilter filter,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getUsers(filter, afterId, limit));
+    }
+
+    /**
+     * Every matching user as newline-delimited JSON, streamed from a database cursor.
+     */
+    @GetMapping(value = "/all-users/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(UserFilter filter) {
+        StreamingResponseBody body = out -> userService.exportUsers(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
     }
 
     @GetMapping("/user/{userId}")
@@ -191,7 +236,11 @@ public class UserController {
     public ResponseEntity<Long> getUserId(@RequestHeader(HttpHeaders.AUTHORIZATION) String token) {
         try {
             String jwt = token.substring(7);
-            String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            Optional<JwtPrincipal> principal = jwtUtils.parseToken(jwt);
+            if (principal.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
+            }
+            String username = principal.get().subject();
             log.info("Getting user ID for username: {}", username);
 
             // Find user by username using the userService
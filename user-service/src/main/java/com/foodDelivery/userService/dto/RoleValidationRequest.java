@@ -0,0 +1,13 @@
+package com.foodDelivery.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleValidationRequest {
+    private Long userId;
+    private String role;
+}
@@ -0,0 +1,13 @@
+package com.foodDelivery.userService.dto;
+
+import lombok.Data;
+
+/** Optional filters for the admin user listing; unset fields match every user. */
+@Data
+public class UserFilter {
+    /** Role name, with or without the ROLE_ prefix. */
+    private String role;
+    private Boolean enabled;
+    /** Case-insensitive substring of the username or email. */
+    private String search;
+}
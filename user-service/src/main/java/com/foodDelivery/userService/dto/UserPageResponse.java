@@ -0,0 +1,14 @@
+package com.foodDelivery.userService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserProfileResponse> users;
+    /** Pass as afterId to fetch the next page; null on the last page. */
+    private Long nextCursor;
+}
@@ -0,0 +1,40 @@
+package com.foodDelivery.userService.dto;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A user's profile read straight from a projection query, roles aggregated into one comma-separated
+ * column. Nothing is managed by the persistence context and the password hash is never read.
+ */
+public record UserProfileView(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        String phoneNumber,
+        String profileImage,
+        String address,
+        String locationType,
+        Double latitude,
+        Double longitude,
+        boolean enabled,
+        boolean disabled,
+        boolean deleted,
+        boolean verified,
+        String identificationNumber,
+        String vehicleNumber,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        String roles) {
+
+    /** Same field mapping as the entity-based UserServiceImpl#mapToUserProfileResponse. */
+    public UserProfileResponse toResponse() {
+        return new UserProfileResponse(id, username, email, firstName, lastName, phoneNumber, profileImage, address,
+                locationType, latitude, longitude, enabled, disabled, deleted, verified, identificationNumber,
+                vehicleNumber, createdAt, updatedAt,
+                roles == null ? List.of() : Arrays.asList(roles.split(",")));
+    }
+}
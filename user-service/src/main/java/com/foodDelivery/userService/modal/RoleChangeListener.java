@@ -0,0 +1,41 @@
+package com.foodDelivery.userService.modal;
+
+import com.foodDelivery.userService.serviceImplementation.RoleRegistry;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Reloads the {@link RoleRegistry} once a transaction that wrote a role has committed.
+ */
+public class RoleChangeListener {
+
+    private final ObjectProvider<RoleRegistry> registry;
+
+    public RoleChangeListener(ObjectProvider<RoleRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Role role) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        registry.ifAvailable(RoleRegistry::refresh);
+    }
+}
@@ -0,0 +1,46 @@
+package com.foodDelivery.userService.modal;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * User columns that no two users may share, in the order conflicts are reported.
+ */
+public enum UniqueUserField {
+    USERNAME("username", "Username is already taken"),
+    EMAIL("email", "Email is already in use"),
+    PHONE_NUMBER("phone_number", "Phone number is already registered"),
+    IDENTIFICATION_NUMBER("identification_number", "Identification number is already registered");
+
+    private final String column;
+    private final String message;
+
+    UniqueUserField(String column, String message) {
+        this.column = column;
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Maps a duplicate-key violation on insert or update back to the field it was raised for, so a
+     * signup racing another one reports the same error the up-front check would have.
+     */
+    public static Optional<UniqueUserField> fromViolation(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        String detail = (constraint != null ? constraint : String.valueOf(e.getMostSpecificCause().getMessage()))
+                .toLowerCase(Locale.ROOT);
+        for (UniqueUserField field : values()) {
+            if (detail.contains(field.column)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.foodDelivery.userService.modal;
+
+import com.foodDelivery.userService.serviceImplementation.UserAuthorizationIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts a user from the {@link UserAuthorizationIndex} whenever its enabled flag or roles may have changed.
+ * Eviction waits for the commit, so a concurrent lookup cannot reload the pre-commit state and keep it.
+ */
+public class UserAuthorizationListener {
+
+    private final ObjectProvider<UserAuthorizationIndex> index;
+
+    public UserAuthorizationListener(ObjectProvider<UserAuthorizationIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        Long userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(Long userId) {
+        index.ifAvailable(authorizationIndex -> authorizationIndex.evict(userId));
+    }
+}
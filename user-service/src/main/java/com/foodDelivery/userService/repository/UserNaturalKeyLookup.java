@@ -0,0 +1,18 @@
+package com.foodDelivery.userService.repository;
+
+import com.foodDelivery.userService.modal.User;
+
+import java.util.Optional;
+
+/**
+ * Username and email lookups answered per key from the second-level cache, so a write to one user never
+ * invalidates the lookups of the others (as a cached query would, through the update-timestamps region).
+ */
+public interface UserNaturalKeyLookup {
+
+    /** Resolved through the username natural-id cache; a renamed user is re-keyed by Hibernate on commit. */
+    Optional<User> findByUsername(String username);
+
+    /** Resolved through an email to id index whose entries are checked against the user they point to. */
+    Optional<User> findByEmail(String email);
+}
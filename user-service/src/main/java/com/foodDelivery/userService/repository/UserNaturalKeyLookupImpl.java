@@ -0,0 +1,70 @@
+package com.foodDelivery.userService.repository;
+
+import com.foodDelivery.userService.modal.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.Cache;
+import java.util.Optional;
+
+// Read-only transactional like SimpleJpaRepository's own finders, so the unwrapped session stays open
+@Transactional(readOnly = true)
+class UserNaturalKeyLookupImpl implements UserNaturalKeyLookup {
+
+    static final String EMAIL_INDEX_REGION = "users.by-email";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Optional<Cache<Object, Object>> emailIndex;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Cache<Object, Object> index = emailIndex().orElse(null);
+        if (index != null && index.get(email) instanceof Long userId) {
+            // The user itself comes from the entity region, which Hibernate keeps current per id
+            User user = entityManager.find(User.class, userId);
+            if (user != null && email.equalsIgnoreCase(user.getEmail())) {
+                return Optional.of(user);
+            }
+            index.remove(email, userId);
+        }
+        Optional<User> user = entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
+                .setParameter("email", email)
+                .getResultStream()
+                .findFirst();
+        if (index != null) {
+            user.ifPresent(found -> index.put(email, found.getId()));
+        }
+        return user;
+    }
+
+    // Lives next to Hibernate's regions, so it shares their provider (and clustering) and their bounds
+    private Optional<Cache<Object, Object>> emailIndex() {
+        Optional<Cache<Object, Object>> resolved = emailIndex;
+        if (resolved == null) {
+            SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class);
+            RegionFactory regionFactory = sessionFactory.getCache().getRegionFactory();
+            resolved = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()
+                    && regionFactory instanceof JCacheRegionFactory jcache
+                    ? Optional.ofNullable(jcache.getCacheManager().getCache(EMAIL_INDEX_REGION))
+                    : Optional.empty();
+            emailIndex = resolved;
+        }
+        return resolved;
+    }
+}
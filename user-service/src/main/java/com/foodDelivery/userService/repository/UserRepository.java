@@ -1,22 +1,137 @@
 package com.foodDelivery.userService.repository;
 
-import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.dto.UserProfileView;
+import com.foodDelivery.userService.modal.UniqueUserField;
 import com.foodDelivery.userService.modal.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
-    Optional<User> findByEmail(String email);
+// findByUsername and findByEmail come from UserNaturalKeyLookup, cached per key
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalKeyLookup {
     Boolean existsByUsername(String username);
-    Boolean existsByEmail(String email);
-    Boolean existsByIdentificationNumber(String identificationNumber);
-    boolean existsByPhoneNumber(String phoneNumber);
-    @Query("SELECT u FROM User u")
-    List<User> findAllUsers();
+
+    /**
+     * Which of the given values other users already hold, in one query. Null or empty values are not checked;
+     * excludeId leaves out the user being updated.
+     */
+    default EnumSet<UniqueUserField> findConflicts(String username, String email, String phoneNumber,
+                                                   String identificationNumber, Long excludeId) {
+        EnumSet<UniqueUserField> conflicts = EnumSet.noneOf(UniqueUserField.class);
+        if (isBlank(username) && isBlank(email) && isBlank(phoneNumber) && isBlank(identificationNumber)) {
+            return conflicts;
+        }
+        for (ConflictRow row : findConflictRows(blankToNull(username), blankToNull(email), blankToNull(phoneNumber),
+                blankToNull(identificationNumber), excludeId)) {
+            if (row.getUsername()) {
+                conflicts.add(UniqueUserField.USERNAME);
+            }
+            if (row.getEmail()) {
+                conflicts.add(UniqueUserField.EMAIL);
+            }
+            if (row.getPhoneNumber()) {
+                conflicts.add(UniqueUserField.PHONE_NUMBER);
+            }
+            if (row.getIdentificationNumber()) {
+                conflicts.add(UniqueUserField.IDENTIFICATION_NUMBER);
+            }
+        }
+        return conflicts;
+    }
+
+    // Compared in the database so its collation decides what counts as equal, as the unique keys do
+    @Query("SELECT CASE WHEN u.username = :username THEN true ELSE false END AS username,"
+            + " CASE WHEN u.email = :email THEN true ELSE false END AS email,"
+            + " CASE WHEN u.phoneNumber = :phoneNumber THEN true ELSE false END AS phoneNumber,"
+            + " CASE WHEN u.identificationNumber = :identificationNumber THEN true ELSE false END AS identificationNumber"
+            + " FROM User u"
+            + " WHERE (u.username = :username OR u.email = :email OR u.phoneNumber = :phoneNumber"
+            + " OR u.identificationNumber = :identificationNumber)"
+            + " AND (:excludeId IS NULL OR u.id <> :excludeId)")
+    List<ConflictRow> findConflictRows(@Param("username") String username, @Param("email") String email,
+                                       @Param("phoneNumber") String phoneNumber,
+                                       @Param("identificationNumber") String identificationNumber,
+                                       @Param("excludeId") Long excludeId);
+
+    interface ConflictRow {
+        boolean getUsername();
+        boolean getEmail();
+        boolean getPhoneNumber();
+        boolean getIdentificationNumber();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static String blankToNull(String value) {
+        return isBlank(value) ? null : value;
+    }
+    // Profile columns plus the user's roles in one row; every selected column is grouped on for databases
+    // without functional-dependency detection
+    String PROFILE_VIEW = "SELECT new com.foodDelivery.userService.dto.UserProfileView(u.id, u.username, u.email,"
+            + " u.firstName, u.lastName, u.phoneNumber, u.profileImage, u.address, u.locationType, u.latitude,"
+            + " u.longitude, u.enabled, u.isDisabled, u.isDeleted, u.isVerified, u.identificationNumber,"
+            + " u.vehicleNumber, u.createdAt, u.updatedAt, LISTAGG(r.name, ',') WITHIN GROUP (ORDER BY r.name))"
+            + " FROM User u LEFT JOIN u.roles r";
+    String PROFILE_GROUP_BY = " GROUP BY u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber,"
+            + " u.profileImage, u.address, u.locationType, u.latitude, u.longitude, u.enabled, u.isDisabled,"
+            + " u.isDeleted, u.isVerified, u.identificationNumber, u.vehicleNumber, u.createdAt, u.updatedAt";
+    // Filters on a role without narrowing the aggregated roles to it
+    String HAS_ROLE = "EXISTS (SELECT hr FROM u.roles hr WHERE hr.name = :role)";
+
+    @Query(PROFILE_VIEW + " WHERE u.id = :id" + PROFILE_GROUP_BY)
+    Optional<UserProfileView> findProfileById(@Param("id") Long id);
+
+    @Query(PROFILE_VIEW + " WHERE u.username = :username" + PROFILE_GROUP_BY)
+    Optional<UserProfileView> findProfileByUsername(@Param("username") String username);
+
+    @Query(PROFILE_VIEW + " WHERE " + HAS_ROLE + PROFILE_GROUP_BY + " ORDER BY u.id")
+    List<UserProfileView> findProfilesByRole(@Param("role") String role);
+
+    // Keyset on id: each page starts right after the last id of the previous one, so deep pages cost the same as the first
+    String FILTER = " WHERE u.id > :afterId"
+            + " AND (:role IS NULL OR " + HAS_ROLE + ")"
+            + " AND (:enabled IS NULL OR u.enabled = :enabled)"
+            + " AND (:search IS NULL OR LOWER(u.username) LIKE :search ESCAPE '!' OR LOWER(u.email) LIKE :search ESCAPE '!')";
+    String FILTERED_BY_ID = "SELECT u FROM User u" + FILTER + " ORDER BY u.id";
+
+    @Query(PROFILE_VIEW + FILTER + PROFILE_GROUP_BY + " ORDER BY u.id")
+    List<UserProfileView> findPage(@Param("afterId") long afterId, @Param("role") String role,
+                                   @Param("enabled") Boolean enabled, @Param("search") String search, Limit limit);
+
+    // Forward-only cursor for exports: rows arrive in fetch-size batches and bypass the second-level cache
+    @Query(FILTERED_BY_ID)
+    @EntityGraph(attributePaths = "roles")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<User> streamAll(@Param("afterId") long afterId, @Param("role") String role, @Param("enabled") Boolean enabled,
+                           @Param("search") String search);
+    // Roles are fetched in the same query; the filter's join on roles is separate, so every role is loaded
+    @EntityGraph(attributePaths = "roles")
     List<User> findByRolesName(String roleName);
-    List<User> findByRolesContaining(Role role);
+
+    /** One row per (user, role), or a single row with a null role for users without any. */
+    @Query("SELECT u.id AS id, u.enabled AS enabled, r.name AS role FROM User u LEFT JOIN u.roles r WHERE u.id IN :ids")
+    List<AuthorizationRow> findAuthorizationRows(@Param("ids") Collection<Long> ids);
+
+    interface AuthorizationRow {
+        Long getId();
+        Boolean getEnabled();
+        String getRole();
+    }
 }
\ No newline at end of file
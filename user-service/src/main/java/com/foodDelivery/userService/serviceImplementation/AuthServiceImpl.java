@@ -6,15 +6,19 @@ import com.foodDelivery.userService.event.UserRegistrationEvent;
 import com.foodDelivery.userService.modal.ConfirmationToken;
 import com.foodDelivery.userService.modal.PasswordResetToken;
 import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.modal.UniqueUserField;
 import com.foodDelivery.userService.modal.User;
 import com.foodDelivery.userService.repository.ConfirmationTokenRepository;
 import com.foodDelivery.userService.repository.PasswordResetTokenRepository;
-import com.foodDelivery.userService.repository.RoleRepository;
 import com.foodDelivery.userService.repository.UserRepository;
 import com.foodDelivery.userService.serviceInterfaces.AuthService;
 import com.foodDelivery.userService.serviceInterfaces.KafkaProducerService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -29,18 +33,20 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 @Slf4j
 public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final ConfirmationTokenRepository confirmationTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
     private final KafkaProducerService kafkaProducerService;
+    private final ObservationRegistry observationRegistry;
 
     private static final String RESET_PASSWORD_URL = "http://localhost:5173/reset-password?token=";
     private static final String CONFIRMATION_URL = "http://localhost:8081/api/auth/confirm?token=";
@@ -118,26 +124,18 @@ public class AuthServiceImpl implements AuthService {
                     .body(new MessageResponse("Error: Username, email and password are required!"));
         }
 
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: Username is already taken!"));
-        }
-
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: Email is already in use!"));
-        }
-
-        if (signUpRequest.getPhoneNumber() != null && !signUpRequest.getPhoneNumber().isEmpty() &&
-                userRepository.existsByPhoneNumber(signUpRequest.getPhoneNumber())) {
-            return ResponseEntity.badRequest().body(new MessageResponse("Error: Phone number is already registered!"));
+        // Username, email and phone number in one query
+        EnumSet<UniqueUserField> conflicts = userRepository.findConflicts(signUpRequest.getUsername(),
+                signUpRequest.getEmail(), signUpRequest.getPhoneNumber(), null, null);
+        if (!conflicts.isEmpty()) {
+            return conflictResponse(conflicts.iterator().next());
         }
 
         // Create new user's account with defaults for missing fields
         User user = new User();
         user.setUsername(signUpRequest.getUsername());
         user.setEmail(signUpRequest.getEmail());
-        user.setPassword(encoder.encode(signUpRequest.getPassword()));
+        user.setPassword(hashPassword(signUpRequest.getPassword()));
 
         // Handle optional fields with defaults
         user.setFirstName(signUpRequest.getFirstName() != null ? signUpRequest.getFirstName() : "");
@@ -171,12 +169,22 @@ public class AuthServiceImpl implements AuthService {
 
         // Always assign only CUSTOMER role for self-registration
         Set<Role> roles = new HashSet<>();
-        Role customerRole = roleRepository.findByName("ROLE_CUSTOMER")
+        Role customerRole = roleRegistry.byName("ROLE_CUSTOMER")
                 .orElseThrow(() -> new RuntimeException("Error: Default customer role not found."));
         roles.add(customerRole);
         user.setRoles(roles);
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Another signup took the username or email after the check
+            Optional<UniqueUserField> field = UniqueUserField.fromViolation(e);
+            if (field.isEmpty()) {
+                throw e;
+            }
+            return conflictResponse(field.get());
+        }
 
         // Generate confirmation token and URL
         ConfirmationToken confirmationToken = new ConfirmationToken(savedUser);
@@ -284,7 +292,7 @@ public class AuthServiceImpl implements AuthService {
             }
 
             User user = resetToken.getUser();
-            user.setPassword(encoder.encode(resetRequest.getNewPassword()));
+            user.setPassword(hashPassword(resetRequest.getNewPassword()));
             userRepository.save(user);
 
             // Delete used token
@@ -296,4 +304,14 @@ public class AuthServiceImpl implements AuthService {
         return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error: Invalid token!"));
     }
-}
\ No newline at end of file
+
+    // bcrypt is deliberately slow, so it gets its own span next to the repository and Kafka spans
+    private String hashPassword(String rawPassword) {
+        return Observation.createNotStarted("user.password.hash", observationRegistry)
+                .observe(() -> encoder.encode(rawPassword));
+    }
+
+    private static ResponseEntity<MessageResponse> conflictResponse(UniqueUserField field) {
+        return ResponseEntity.badRequest().body(new MessageResponse("Error: " + field.getMessage() + "!"));
+    }
+}
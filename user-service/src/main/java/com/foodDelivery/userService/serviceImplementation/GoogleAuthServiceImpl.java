@@ -8,10 +8,10 @@ import com.foodDelivery.userService.modal.ConfirmationToken;
 import com.foodDelivery.userService.modal.Role;
 import com.foodDelivery.userService.modal.User;
 import com.foodDelivery.userService.repository.ConfirmationTokenRepository;
-import com.foodDelivery.userService.repository.RoleRepository;
 import com.foodDelivery.userService.repository.UserRepository;
 import com.foodDelivery.userService.serviceInterfaces.GoogleAuthService;
 import com.foodDelivery.userService.serviceInterfaces.KafkaProducerService;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,12 +27,13 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Observed
 @Slf4j
 @RequiredArgsConstructor
 public class GoogleAuthServiceImpl implements GoogleAuthService {
 
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final ConfirmationTokenRepository confirmationTokenRepository;
@@ -115,7 +116,7 @@ public class GoogleAuthServiceImpl implements GoogleAuthService {
         user.setEnabled(true);
 
         // Set default role as CUSTOMER
-        Role customerRole = roleRepository.findByName("ROLE_CUSTOMER")
+        Role customerRole = roleRegistry.byName("ROLE_CUSTOMER")
                 .orElseThrow(() -> {
                     log.error("Default ROLE_CUSTOMER not found in database");
                     return new RuntimeException("Default role ROLE_CUSTOMER not found");
@@ -0,0 +1,103 @@
+package com.foodDelivery.userService.serviceImplementation;
+
+import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.repository.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The roles table held in memory: name lookups without a query, and a bit position per role, numbered by id,
+ * for callers that pack a user's roles into bits (see {@link UserAuthorizationIndex}). Loaded at startup and
+ * reloaded after any local role write (see {@link RoleChangeListener}); a name we do not know reloads too, at most
+ * once per refresh interval, to pick up roles added elsewhere. The returned roles are shared and must not be modified.
+ */
+@Component
+@Slf4j
+public class RoleRegistry {
+
+    // Bounded by the role bits UserAuthorizationIndex packs next to its expiry, checked on every load
+    public static final int MAX_ROLES = Integer.SIZE;
+
+    private final RoleRepository roleRepository;
+    private final long refreshIntervalMillis;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), 0);
+    private volatile long loadedAt;
+
+    private record Snapshot(Map<String, Role> byName, Map<String, Integer> bits, int generation) {
+    }
+
+    public RoleRegistry(RoleRepository roleRepository,
+                        @Value("${foodDelivery.app.roles.refresh-interval:60s}") Duration refreshInterval) {
+        this.roleRepository = roleRepository;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    public Optional<Role> byName(String name) {
+        Role role = snapshot.byName().get(name);
+        if (role == null && name != null && stale()) {
+            synchronized (this) {
+                if (stale()) {
+                    refresh();
+                }
+            }
+            role = snapshot.byName().get(name);
+        }
+        return Optional.ofNullable(role);
+    }
+
+    /**
+     * @return the role's bit position, or null for an unknown role
+     */
+    public Integer bit(String name) {
+        return byName(name).map(role -> snapshot.bits().get(role.getName())).orElse(null);
+    }
+
+    /**
+     * A counter that moves whenever the bit numbering changes, for callers that keep bitsets around.
+     */
+    public int generation() {
+        return snapshot.generation();
+    }
+
+    public synchronized void refresh() {
+        loadedAt = System.currentTimeMillis();
+        List<Role> roles = new ArrayList<>(roleRepository.findAll());
+        if (roles.size() > MAX_ROLES) {
+            throw new IllegalStateException("At most " + MAX_ROLES + " roles are supported, found " + roles.size());
+        }
+        roles.sort(Comparator.comparing(Role::getId));
+
+        Map<String, Role> byName = new HashMap<>();
+        Map<String, Integer> bits = new HashMap<>();
+        for (Role role : roles) {
+            byName.put(role.getName(), role);
+            bits.put(role.getName(), bits.size());
+        }
+        int generation = snapshot.generation();
+        if (!bits.equals(snapshot.bits())) {
+            generation++;
+            log.info("Loaded roles {}", bits);
+        }
+        snapshot = new Snapshot(Map.copyOf(byName), Map.copyOf(bits), generation);
+    }
+
+    private boolean stale() {
+        return snapshot.byName().isEmpty() || System.currentTimeMillis() - loadedAt >= refreshIntervalMillis;
+    }
+}
@@ -0,0 +1,171 @@
+package com.foodDelivery.userService.serviceImplementation;
+
+import com.foodDelivery.userService.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers "is this user enabled and does it hold this role" without loading users. Each user is one
+ * packed {@code long}: bit 63 the enabled flag, bits 32-62 the entry's expiry in seconds, bits 0-31 the
+ * user's roles in {@link RoleRegistry} bit order, which is why the registry refuses to load more than
+ * {@link RoleRegistry#MAX_ROLES}. Entries are read through from a single id/enabled/role query, evicted when
+ * the user changes (see {@link UserAuthorizationListener}) and expire after a TTL so changes made by other
+ * replicas are picked up.
+ * <p>
+ * Every eviction bumps the user's version, and a load only stores rows for users whose version is still the
+ * one it saw before querying, so rows read before a commit cannot overwrite that commit's eviction.
+ */
+@Component
+public class UserAuthorizationIndex {
+
+    private static final long ENABLED = 1L << 63;
+    private static final int EXPIRY_SHIFT = RoleRegistry.MAX_ROLES;
+    private static final long EXPIRY_MASK = 0x7FFF_FFFFL;
+
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final long ttlSeconds;
+    private final int maxEntries;
+    private final long epochSeconds = System.currentTimeMillis() / 1000;
+    private final Map<Long, Long> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong versionEpoch = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private volatile int roleGeneration;
+
+    public UserAuthorizationIndex(UserRepository userRepository, RoleRegistry roleRegistry,
+                                  @Value("${foodDelivery.app.authorization-index.ttl:60s}") Duration ttl,
+                                  @Value("${foodDelivery.app.authorization-index.max-entries:100000}") int maxEntries,
+                                  MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.ttlSeconds = ttl.toSeconds();
+        this.maxEntries = maxEntries;
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        Gauge.builder("user.authorization.index.size", entries, Map::size)
+                .description("Users held in the authorization index")
+                .register(meterRegistry);
+    }
+
+    public boolean isAuthorized(Long userId, String role) {
+        return isAuthorized(List.of(userId), List.of(role)).get(0);
+    }
+
+    /**
+     * Checks many (userId, role) pairs at once; users not in the index are loaded with one query.
+     *
+     * @return one answer per pair, in order
+     */
+    public List<Boolean> isAuthorized(List<Long> userIds, List<String> roles) {
+        long now = now();
+        int generation = roleRegistry.generation();
+        if (generation != roleGeneration) {
+            // Entries were packed against the previous role numbering
+            entries.clear();
+            roleGeneration = generation;
+        }
+        Map<Long, Long> resolved = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            Long entry = userId != null ? entries.get(userId) : null;
+            if (entry != null && expiry(entry) > now) {
+                hits.increment();
+                resolved.put(userId, entry);
+            } else if (userId != null) {
+                misses.increment();
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            resolved.putAll(load(missing, now));
+        }
+
+        List<Boolean> answers = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            Long entry = resolved.get(userIds.get(i));
+            answers.add(entry != null && (entry & ENABLED) != 0 && hasRole(entry, roles.get(i)));
+        }
+        return answers;
+    }
+
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (versions.size() >= maxEntries) {
+            // Forget old versions; the new epoch makes every load in flight drop its rows instead
+            versionEpoch.incrementAndGet();
+            versions.clear();
+        }
+        // Same key lock as the guarded store in load, so the two cannot interleave
+        versions.compute(userId, (id, version) -> {
+            entries.remove(id);
+            return version == null ? 1 : version + 1;
+        });
+    }
+
+    private boolean hasRole(long entry, String role) {
+        Integer bit = role != null ? roleRegistry.bit(role) : null;
+        return bit != null && (entry & (1L << bit)) != 0;
+    }
+
+    private Map<Long, Long> load(Collection<Long> userIds, long now) {
+        long epoch = versionEpoch.get();
+        Map<Long, Long> seen = new HashMap<>();
+        userIds.forEach(userId -> seen.put(userId, versions.getOrDefault(userId, 0L)));
+
+        long expiry = Math.min(now + ttlSeconds, EXPIRY_MASK) << EXPIRY_SHIFT;
+        Map<Long, Long> loaded = new HashMap<>();
+        for (UserRepository.AuthorizationRow row : userRepository.findAuthorizationRows(userIds)) {
+            long entry = loaded.getOrDefault(row.getId(), expiry | (Boolean.TRUE.equals(row.getEnabled()) ? ENABLED : 0));
+            Integer bit = row.getRole() != null ? roleRegistry.bit(row.getRole()) : null;
+            loaded.put(row.getId(), bit != null ? entry | (1L << bit) : entry);
+        }
+        // Unknown ids are cached too, as disabled users without roles
+        userIds.forEach(userId -> loaded.putIfAbsent(userId, expiry));
+
+        if (entries.size() + loaded.size() > maxEntries) {
+            entries.values().removeIf(entry -> expiry(entry) <= now);
+        }
+        if (entries.size() + loaded.size() <= maxEntries) {
+            loaded.forEach((userId, entry) -> versions.compute(userId, (id, version) -> {
+                if (epoch == versionEpoch.get() && seen.get(id) == (version == null ? 0L : version)) {
+                    entries.put(id, entry);
+                }
+                return version;
+            }));
+        }
+        return loaded;
+    }
+
+    private long now() {
+        return System.currentTimeMillis() / 1000 - epochSeconds;
+    }
+
+    private static long expiry(long entry) {
+        return (entry >>> EXPIRY_SHIFT) & EXPIRY_MASK;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("user.authorization.index.lookups")
+                .description("Role validation lookups answered from the index or loaded from the database")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,28 +1,38 @@
 package com.foodDelivery.userService.serviceImplementation;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.foodDelivery.userService.dto.*;
 import com.foodDelivery.userService.event.UserRegistrationAdminEvent;
 import com.foodDelivery.userService.modal.ConfirmationToken;
 import com.foodDelivery.userService.modal.PasswordResetToken;
 import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.modal.UniqueUserField;
 import com.foodDelivery.userService.modal.User;
 import com.foodDelivery.userService.repository.ConfirmationTokenRepository;
 import com.foodDelivery.userService.repository.PasswordResetTokenRepository;
-import com.foodDelivery.userService.repository.RoleRepository;
 import com.foodDelivery.userService.repository.UserRepository;
 import com.foodDelivery.userService.serviceInterfaces.KafkaProducerService;
 import com.foodDelivery.userService.serviceInterfaces.UserService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
@@ -31,22 +41,34 @@ public class UserServiceImpl implements UserService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final ConfirmationTokenRepository confirmationTokenRepository;
     private final PasswordEncoder passwordEncoder;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final KafkaProducerService kafkaProducerService;
+    private final UserAuthorizationIndex authorizationIndex;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private static final int EXPORT_BATCH_SIZE = 500;
     private static final String CONFIRMATION_URL = "http://localhost:8081/api/auth/confirm?token=";
 
     @Override
     public Optional<UserProfileResponse> getUserProfile(String username) {
-        return userRepository.findByUsername(username)
-                .map(this::mapToUserProfileResponse);
+        return userRepository.findProfileByUsername(username)
+                .map(UserProfileView::toResponse);
     }
 
     @Override
     public boolean validateUserRoleAndEnabled(Long userId, String role) {
-        return userRepository.findById(userId)
-                .map(user -> user.isEnabled() && user.getRoles().stream()
-                        .anyMatch(userRole -> userRole.getName().equals(role)))
-                .orElse(false);
+        return authorizationIndex.isAuthorized(userId, role);
+    }
+
+    @Override
+    public List<Boolean> validateUserRolesAndEnabled(List<RoleValidationRequest> requests) {
+        List<Long> userIds = new ArrayList<>(requests.size());
+        List<String> roles = new ArrayList<>(requests.size());
+        for (RoleValidationRequest request : requests) {
+            userIds.add(request.getUserId());
+            roles.add(request.getRole());
+        }
+        return authorizationIndex.isAuthorized(userIds, roles);
     }
 
     @Override
@@ -60,28 +82,22 @@ public class UserServiceImpl implements UserService {
     public boolean updateUserProfile(String username, UserProfileRequest profileRequest) {
         return userRepository.findByUsername(username)
                 .map(user -> {
-                    // Validate unique fields
-                    if (profileRequest.getUsername() != null && !profileRequest.getUsername().equals(user.getUsername())) {
-                        if (userRepository.existsByUsername(profileRequest.getUsername())) {
-                            throw new IllegalArgumentException("Username already taken");
-                        }
-                        user.setUsername(profileRequest.getUsername());
+                    // Validate the unique fields that change, all in one query
+                    String newUsername = changed(profileRequest.getUsername(), user.getUsername());
+                    String newEmail = changed(profileRequest.getEmail(), user.getEmail());
+                    String newPhoneNumber = changed(profileRequest.getPhoneNumber(), user.getPhoneNumber());
+                    requireUnique(newUsername, newEmail, newPhoneNumber, null, user.getId());
+
+                    if (newUsername != null) {
+                        user.setUsername(newUsername);
                     }
 
-                    if (profileRequest.getEmail() != null && !profileRequest.getEmail().equals(user.getEmail())) {
-                        if (userRepository.existsByEmail(profileRequest.getEmail())) {
-                            throw new IllegalArgumentException("Email already in use");
-                        }
-                        user.setEmail(profileRequest.getEmail());
+                    if (newEmail != null) {
+                        user.setEmail(newEmail);
                     }
 
-                    if (profileRequest.getPhoneNumber() != null && !profileRequest.getPhoneNumber().equals(user.getPhoneNumber())) {
-                        if (userRepository.existsByPhoneNumber(profileRequest.getPhoneNumber())) {
-                            throw new IllegalArgumentException("Phone number already in use");
-                        }
-                        user.setPhoneNumber(profileRequest.getPhoneNumber());
-                    } else if (profileRequest.getPhoneNumber() != null) {
-                        user.setPhoneNumber(profileRequest.getPhoneNumber());
+                    if (newPhoneNumber != null) {
+                        user.setPhoneNumber(newPhoneNumber);
                     }
 
                     // Update other fields
@@ -114,7 +130,7 @@ public class UserServiceImpl implements UserService {
                         user.setAddress(profileRequest.getAddress());
                     }
 
-                    userRepository.save(user);
+                    saveUnique(user);
                     return true;
                 })
                 .orElse(false);
@@ -133,33 +149,83 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserProfileResponse> getAllUsers() {
-        return userRepository.findAllUsers()
+    public UserPageResponse getUsers(UserFilter filter, long afterId, int limit) {
+        List<UserProfileResponse> users = userRepository.findPage(afterId, roleName(filter), filter.getEnabled(),
+                        searchPattern(filter), Limit.of(limit))
                 .stream()
-                .map(this::mapToUserProfileResponse)
+                .map(UserProfileView::toResponse)
                 .toList();
+        Long nextCursor = users.size() == limit ? users.get(users.size() - 1).getId() : null;
+        return new UserPageResponse(users, nextCursor);
     }
 
     @Override
-    public UserProfileResponse createUserByAdmin(SignupRequest signUpRequest) {
-        // Validate unique fields
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            throw new IllegalArgumentException("Username is already taken");
+    @Transactional(readOnly = true)
+    public void exportUsers(UserFilter filter, OutputStream out) throws IOException {
+        int written = 0;
+        try (Stream<User> users = userRepository.streamAll(0, roleName(filter), filter.getEnabled(), searchPattern(filter))) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(mapToUserProfileResponse(iterator.next())));
+                out.write('\n');
+                if (++written % EXPORT_BATCH_SIZE == 0) {
+                    // Detach what was written so far; the persistence context would otherwise hold every user
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
         }
+        out.flush();
+        log.info("Exported {} users", written);
+    }
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            throw new IllegalArgumentException("Email is already in use");
+    private void requireUnique(String username, String email, String phoneNumber, String identificationNumber,
+                               Long excludeId) {
+        EnumSet<UniqueUserField> conflicts = userRepository.findConflicts(username, email, phoneNumber,
+                identificationNumber, excludeId);
+        if (!conflicts.isEmpty()) {
+            throw new IllegalArgumentException(conflicts.iterator().next().getMessage());
         }
+    }
 
-        if (signUpRequest.getPhoneNumber() != null && !signUpRequest.getPhoneNumber().isEmpty() &&
-                userRepository.existsByPhoneNumber(signUpRequest.getPhoneNumber())) {
-            throw new IllegalArgumentException("Phone number is already registered");
+    // A concurrent signup can still take a value between the check and the write; report it the same way
+    private User saveUnique(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw UniqueUserField.fromViolation(e)
+                    .<RuntimeException>map(field -> new IllegalArgumentException(field.getMessage(), e))
+                    .orElse(e);
         }
+    }
 
-        if (signUpRequest.getIdentificationNumber() != null && !signUpRequest.getIdentificationNumber().isEmpty() &&
-                userRepository.existsByIdentificationNumber(signUpRequest.getIdentificationNumber())) {
-            throw new IllegalArgumentException("Identification number is already registered");
+    // The requested value if it differs from the current one, else null
+    private static String changed(String requested, String current) {
+        return requested != null && !requested.equals(current) ? requested : null;
+    }
+
+    private static String roleName(UserFilter filter) {
+        String role = filter.getRole();
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        return role.startsWith("ROLE_") ? role : "ROLE_" + role;
+    }
+
+    private static String searchPattern(UserFilter filter) {
+        String search = filter.getSearch();
+        if (search == null || search.isBlank()) {
+            return null;
         }
+        String escaped = search.toLowerCase(Locale.ROOT).replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    @Override
+    public UserProfileResponse createUserByAdmin(SignupRequest signUpRequest) {
+        // Validate unique fields
+        requireUnique(signUpRequest.getUsername(), signUpRequest.getEmail(), signUpRequest.getPhoneNumber(),
+                signUpRequest.getIdentificationNumber(), null);
 
         // Create new user account
         User user = new User();
@@ -208,7 +274,7 @@ public class UserServiceImpl implements UserService {
         Set<Role> roles = assignUserRoles(signUpRequest.getRoles());
         user.setRoles(roles);
 
-        User savedUser = userRepository.save(user);
+        User savedUser = saveUnique(user);
 
         // Generate confirmation token and URL
         ConfirmationToken confirmationToken = new ConfirmationToken(savedUser);
@@ -247,7 +313,7 @@ public class UserServiceImpl implements UserService {
         Set<Role> roles = new HashSet<>();
 
         if (requestedRoles == null || requestedRoles.isEmpty()) {
-            Role customerRole = roleRepository.findByName("ROLE_CUSTOMER")
+            Role customerRole = roleRegistry.byName("ROLE_CUSTOMER")
                     .orElseThrow(() -> new RuntimeException("Error: Default role not found."));
             roles.add(customerRole);
             return roles;
@@ -256,22 +322,22 @@ public class UserServiceImpl implements UserService {
         for (String role : requestedRoles) {
             switch (role) {
                 case "ROLE_ADMIN":
-                    Role adminRole = roleRepository.findByName("ROLE_ADMIN")
+                    Role adminRole = roleRegistry.byName("ROLE_ADMIN")
                             .orElseThrow(() -> new RuntimeException("Error: Admin role not found."));
                     roles.add(adminRole);
                     break;
                 case "ROLE_RESTAURANT_ADMIN":
-                    Role restaurantRole = roleRepository.findByName("ROLE_RESTAURANT_ADMIN")
+                    Role restaurantRole = roleRegistry.byName("ROLE_RESTAURANT_ADMIN")
                             .orElseThrow(() -> new RuntimeException("Error: Restaurant role not found."));
                     roles.add(restaurantRole);
                     break;
                 case "ROLE_DRIVER":
-                    Role deliveryRole = roleRepository.findByName("ROLE_DELIVERY_PERSONNEL")
+                    Role deliveryRole = roleRegistry.byName("ROLE_DELIVERY_PERSONNEL")
                             .orElseThrow(() -> new RuntimeException("Error: Delivery role not found."));
                     roles.add(deliveryRole);
                     break;
                 default:
-                    Role customerRole = roleRepository.findByName("ROLE_CUSTOMER")
+                    Role customerRole = roleRegistry.byName("ROLE_CUSTOMER")
                             .orElseThrow(() -> new RuntimeException("Error: Default role not found."));
                     roles.add(customerRole);
             }
@@ -287,40 +353,31 @@ public class UserServiceImpl implements UserService {
         // Track changed fields for notification
         Map<String, String> changedFields = new HashMap<>();
 
-        // Validate unique fields when they change (safely check for null values)
-        if (updateRequest.getUsername() != null && !updateRequest.getUsername().equals(user.getUsername())) {
-            if (userRepository.existsByUsername(updateRequest.getUsername())) {
-                throw new IllegalArgumentException("Username is already taken");
-            }
-            changedFields.put("Username", updateRequest.getUsername());
-            user.setUsername(updateRequest.getUsername());
+        // Validate the unique fields that change, all in one query (safely check for null values)
+        String username = changed(updateRequest.getUsername(), user.getUsername());
+        String email = changed(updateRequest.getEmail(), user.getEmail());
+        String phoneNumber = changed(updateRequest.getPhoneNumber(), user.getPhoneNumber());
+        String identificationNumber = changed(updateRequest.getIdentificationNumber(), user.getIdentificationNumber());
+        requireUnique(username, email, phoneNumber, identificationNumber, user.getId());
+
+        if (username != null) {
+            changedFields.put("Username", username);
+            user.setUsername(username);
         }
 
-        if (updateRequest.getEmail() != null && !updateRequest.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(updateRequest.getEmail())) {
-                throw new IllegalArgumentException("Email is already in use");
-            }
-            changedFields.put("Email", updateRequest.getEmail());
-            user.setEmail(updateRequest.getEmail());
+        if (email != null) {
+            changedFields.put("Email", email);
+            user.setEmail(email);
         }
 
-        if (updateRequest.getPhoneNumber() != null && !updateRequest.getPhoneNumber().equals(user.getPhoneNumber())) {
-            if (!updateRequest.getPhoneNumber().isEmpty() &&
-                    userRepository.existsByPhoneNumber(updateRequest.getPhoneNumber())) {
-                throw new IllegalArgumentException("Phone number is already registered");
-            }
-            changedFields.put("Phone Number", updateRequest.getPhoneNumber());
-            user.setPhoneNumber(updateRequest.getPhoneNumber());
+        if (phoneNumber != null) {
+            changedFields.put("Phone Number", phoneNumber);
+            user.setPhoneNumber(phoneNumber);
         }
 
-        if (updateRequest.getIdentificationNumber() != null &&
-                !updateRequest.getIdentificationNumber().equals(user.getIdentificationNumber())) {
-            if (!updateRequest.getIdentificationNumber().isEmpty() &&
-                    userRepository.existsByIdentificationNumber(updateRequest.getIdentificationNumber())) {
-                throw new IllegalArgumentException("Identification number is already registered");
-            }
-            changedFields.put("Identification Number", updateRequest.getIdentificationNumber());
-            user.setIdentificationNumber(updateRequest.getIdentificationNumber());
+        if (identificationNumber != null) {
+            changedFields.put("Identification Number", identificationNumber);
+            user.setIdentificationNumber(identificationNumber);
         }
 
         // Only update password if provided
@@ -410,7 +467,7 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setUpdatedAt(LocalDateTime.now());
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveUnique(user);
 
         // Send notification to user about profile update if any fields changed
         if (!changedFields.isEmpty()) {
@@ -535,25 +592,16 @@ public class UserServiceImpl implements UserService {
             roleName = "ROLE_" + roleName;
         }
 
-        // Find the role
-        Optional<Role> role = roleRepository.findByName(roleName);
-        if (role.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Get users with this role
-        List<User> users = userRepository.findByRolesContaining(role.get());
-
-        // Map to response objects
-        return users.stream()
-                .map(this::mapToUserProfileResponse)
+        return userRepository.findProfilesByRole(roleName)
+                .stream()
+                .map(UserProfileView::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
     public UserProfileResponse getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .map(this::mapToUserProfileResponse)
+        return userRepository.findProfileById(userId)
+                .map(UserProfileView::toResponse)
                 .orElse(null);
     }
 
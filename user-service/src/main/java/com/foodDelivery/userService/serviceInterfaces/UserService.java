@@ -1,6 +1,8 @@
 package com.foodDelivery.userService.serviceInterfaces;
 
 import com.foodDelivery.userService.dto.*;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,7 +13,8 @@ public interface UserService {
     UserProfileResponse getUserByUserName(String username);
     boolean updateUserProfile(String username, UserProfileRequest profileRequest);
     boolean changePassword(String username, PasswordChangeRequest request);
-    List<UserProfileResponse> getAllUsers();
+    UserPageResponse getUsers(UserFilter filter, long afterId, int limit);
+    void exportUsers(UserFilter filter, OutputStream out) throws IOException;
     UserProfileResponse createUserByAdmin(SignupRequest signUpRequest);
     UserProfileResponse updateUserByAdmin(Long userId, UpdateProfileRequest updateRequest);
     boolean requestPasswordReset(String email);
@@ -19,6 +22,7 @@ public interface UserService {
     boolean validateUserRole(Long userId, String role);
     boolean validateUserRoleAndEnabledByUsername(String username, String role);
     boolean validateUserRoleAndEnabled(Long userId, String role);
+    List<Boolean> validateUserRolesAndEnabled(List<RoleValidationRequest> requests);
     List<UserProfileResponse> getUsersByRole(String roleName);
     UserProfileResponse getUserById(Long userId);
     Optional<Long> findIdByUsername(String username);
@@ -0,0 +1,4 @@
+-- Signup and profile updates look users up by phone number and identification number
+-- in the same query as username and email
+CREATE INDEX idx_users_phone_number ON `users` (`phone_number`);
+CREATE INDEX idx_users_identification_number ON `users` (`identification_number`);
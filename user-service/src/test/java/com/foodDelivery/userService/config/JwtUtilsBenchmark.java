@@ -0,0 +1,73 @@
+package com.foodDelivery.userService.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one authenticated request costs to read its token: the former validate / getUserName / getRoles chain,
+ * which built a parser and verified the signature three times, against a single {@link JwtUtils#parseToken}.
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args="JwtUtilsBenchmark -prof gc"};
+ * {@code gc.alloc.rate.norm} is the allocation per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+	private static final String SECRET = "ThisIsAVerySecureKeyWith64CharactersForHS512SigningAlgorithmUsage";
+
+	private final JwtUtils jwtUtils = new JwtUtils();
+	private SecretKey key;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		jwtUtils.init();
+		key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+		token = Jwts.builder()
+				.setSubject("alice")
+				.claim("roles", List.of("ROLE_USER", "ROLE_ADMIN"))
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(key, SignatureAlgorithm.HS512)
+				.compact();
+	}
+
+	@Benchmark
+	public void chainedGetters(Blackhole blackhole) {
+		Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+		blackhole.consume(Jwts.parserBuilder().setSigningKey(key).build()
+				.parseClaimsJws(token).getBody().getSubject());
+		Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+		blackhole.consume(claims.get("roles", List.class));
+	}
+
+	@Benchmark
+	public JwtPrincipal parseOnce() {
+		return jwtUtils.parseToken(token).orElseThrow();
+	}
+}
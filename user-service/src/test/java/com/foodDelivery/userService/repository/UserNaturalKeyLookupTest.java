@@ -0,0 +1,91 @@
+package com.foodDelivery.userService.repository;
+
+import com.foodDelivery.userService.modal.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Username, email and id lookups come from the second-level cache, and a write only invalidates the user it
+ * touched. Every repository call commits on its own so the cache sees the writes.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserNaturalKeyLookupTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void lookupsStayCachedWhileOtherUsersSignUp() {
+		Long aliceId = userRepository.save(user("alice")).getId();
+		userRepository.findByUsername("alice");
+		userRepository.findByEmail("alice@example.com");
+
+		userRepository.save(user("bob"));
+		statistics.clear();
+
+		assertThat(userRepository.findByUsername("alice")).get().extracting(User::getId).isEqualTo(aliceId);
+		assertThat(userRepository.findByEmail("alice@example.com")).get().extracting(User::getId).isEqualTo(aliceId);
+		assertThat(userRepository.findById(aliceId)).isPresent();
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void savingAUserReKeysItsOwnEntries() {
+		User alice = userRepository.save(user("alice"));
+		userRepository.findByUsername("alice");
+		userRepository.findByEmail("alice@example.com");
+
+		alice.setUsername("alicia");
+		alice.setEmail("alicia@example.com");
+		userRepository.save(alice);
+
+		assertThat(userRepository.findByUsername("alice")).isEmpty();
+		assertThat(userRepository.findByEmail("alice@example.com")).isEmpty();
+		assertThat(userRepository.findByUsername("alicia")).get().extracting(User::getEmail).isEqualTo("alicia@example.com");
+		assertThat(userRepository.findByEmail("alicia@example.com")).get().extracting(User::getUsername).isEqualTo("alicia");
+		statistics.clear();
+		assertThat(userRepository.findById(alice.getId())).get().extracting(User::getUsername).isEqualTo("alicia");
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setUsername(name);
+		user.setEmail(name + "@example.com");
+		user.setPassword("secret");
+		user.setIdentificationNumber(name);
+		return user;
+	}
+}
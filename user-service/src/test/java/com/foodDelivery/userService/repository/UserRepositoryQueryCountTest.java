@@ -0,0 +1,125 @@
+package com.foodDelivery.userService.repository;
+
+import com.foodDelivery.userService.dto.UserProfileView;
+import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.modal.UniqueUserField;
+import com.foodDelivery.userService.modal.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loading a list of users must cost the same number of statements whatever its size, roles included.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"USER_CACHE_ENABLED=false"
+})
+class UserRepositoryQueryCountTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 40})
+	void findByRolesNameLoadsRolesInTheSameQuery(int users) {
+		seed(users);
+
+		List<User> customers = userRepository.findByRolesName("ROLE_CUSTOMER");
+
+		assertThat(customers).hasSize(users);
+		assertThat(customers).allSatisfy(user -> assertThat(user.getRoles()).hasSize(2));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 40})
+	void streamAllLoadsRolesInTheSameQuery(int users) {
+		seed(users);
+
+		try (Stream<User> stream = userRepository.streamAll(0, null, null, null)) {
+			assertThat(stream).hasSize(users).allSatisfy(user -> assertThat(user.getRoles()).hasSize(2));
+		}
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 40})
+	void profileProjectionsAggregateRolesInTheSameQuery(int users) {
+		seed(users);
+
+		List<UserProfileView> byRole = userRepository.findProfilesByRole("ROLE_DRIVER");
+		List<UserProfileView> page = userRepository.findPage(0, "ROLE_CUSTOMER", null, null, Limit.of(users));
+
+		assertThat(byRole).hasSize(users);
+		assertThat(page).hasSize(users);
+		assertThat(byRole.get(0).toResponse().getRoles()).containsExactly("ROLE_CUSTOMER", "ROLE_DRIVER");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 40})
+	void findAllBatchesRoleLoading(int users) {
+		seed(users);
+
+		List<User> all = userRepository.findAll();
+
+		assertThat(all).hasSize(users).allSatisfy(user -> assertThat(user.getRoles()).hasSize(2));
+		// One query for the users, one per batch of 100 for their roles
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 40})
+	void findConflictsChecksEveryUniqueFieldInOneQuery(int users) {
+		seed(users);
+
+		assertThat(userRepository.findConflicts("user1", "user2@example.com", "", "id0", null))
+				.containsExactly(UniqueUserField.USERNAME, UniqueUserField.EMAIL, UniqueUserField.IDENTIFICATION_NUMBER);
+		assertThat(userRepository.findConflicts("new", "new@example.com", null, "new", null)).isEmpty();
+		Long first = userRepository.findByUsername("user0").orElseThrow().getId();
+		statistics.clear();
+		assertThat(userRepository.findConflicts("user0", null, null, "id0", first)).isEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private void seed(int users) {
+		Role customer = roleRepository.save(new Role(null, "ROLE_CUSTOMER"));
+		Role driver = roleRepository.save(new Role(null, "ROLE_DRIVER"));
+		for (int i = 0; i < users; i++) {
+			User user = new User();
+			user.setUsername("user" + i);
+			user.setEmail("user" + i + "@example.com");
+			user.setPassword("secret");
+			user.setIdentificationNumber("id" + i);
+			user.setRoles(Set.of(customer, driver));
+			entityManager.persist(user);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+}
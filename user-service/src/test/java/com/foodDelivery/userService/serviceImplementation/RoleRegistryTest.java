@@ -0,0 +1,85 @@
+package com.foodDelivery.userService.serviceImplementation;
+
+import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.repository.RoleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoleRegistryTest {
+
+	private final RoleRepository roleRepository = mock(RoleRepository.class);
+
+	@Test
+	void numbersBitsByIdAndMovesTheGenerationOnlyWhenTheyChange() {
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(7L, "ROLE_ADMIN"), new Role(3L, "ROLE_USER")));
+		RoleRegistry registry = new RoleRegistry(roleRepository, Duration.ofMinutes(1));
+		registry.load();
+		int generation = registry.generation();
+
+		assertThat(registry.bit("ROLE_USER")).isZero();
+		assertThat(registry.bit("ROLE_ADMIN")).isOne();
+
+		registry.refresh();
+		assertThat(registry.generation()).isEqualTo(generation);
+
+		// A role with a lower id shifts every other role's bit
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(7L, "ROLE_ADMIN"), new Role(3L, "ROLE_USER"),
+				new Role(1L, "ROLE_DRIVER")));
+		registry.refresh();
+
+		assertThat(registry.generation()).isEqualTo(generation + 1);
+		assertThat(registry.bit("ROLE_DRIVER")).isZero();
+		assertThat(registry.bit("ROLE_USER")).isOne();
+		assertThat(registry.bit("ROLE_ADMIN")).isEqualTo(2);
+	}
+
+	@Test
+	void unknownNamesReloadAtMostOncePerRefreshInterval() {
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER")));
+		RoleRegistry registry = new RoleRegistry(roleRepository, Duration.ofMinutes(1));
+		registry.load();
+
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER"), new Role(2L, "ROLE_DRIVER")));
+		assertThat(registry.byName("ROLE_DRIVER")).isEmpty();
+		assertThat(registry.bit("ROLE_MISSING")).isNull();
+		verify(roleRepository, times(1)).findAll();
+	}
+
+	@Test
+	void unknownNamesReloadOnceTheIntervalHasPassed() {
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER")));
+		RoleRegistry registry = new RoleRegistry(roleRepository, Duration.ZERO);
+		registry.load();
+
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER"), new Role(2L, "ROLE_DRIVER")));
+		assertThat(registry.byName("ROLE_DRIVER")).map(Role::getId).contains(2L);
+		assertThat(registry.byName("ROLE_USER")).isPresent();
+		verify(roleRepository, times(2)).findAll();
+	}
+
+	@Test
+	void refusesMoreRolesThanFitInTheAuthorizationIndexAndKeepsTheLastGoodSet() {
+		when(roleRepository.findAll()).thenReturn(List.of(new Role(1L, "ROLE_USER")));
+		RoleRegistry registry = new RoleRegistry(roleRepository, Duration.ofMinutes(1));
+		registry.load();
+
+		List<Role> tooMany = new ArrayList<>();
+		LongStream.rangeClosed(1, RoleRegistry.MAX_ROLES + 1).forEach(id -> tooMany.add(new Role(id, "ROLE_" + id)));
+		when(roleRepository.findAll()).thenReturn(tooMany);
+
+		assertThatIllegalStateException().isThrownBy(registry::refresh)
+				.withMessageContaining(String.valueOf(RoleRegistry.MAX_ROLES));
+		assertThat(registry.bit("ROLE_USER")).isZero();
+	}
+}
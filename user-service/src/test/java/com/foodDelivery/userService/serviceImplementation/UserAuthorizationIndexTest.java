@@ -0,0 +1,81 @@
+package com.foodDelivery.userService.serviceImplementation;
+
+import com.foodDelivery.userService.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAuthorizationIndexTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+	private UserAuthorizationIndex index;
+
+	@BeforeEach
+	void setUp() {
+		when(roleRegistry.bit("ROLE_USER")).thenReturn(0);
+		when(roleRegistry.bit("ROLE_ADMIN")).thenReturn(1);
+		index = new UserAuthorizationIndex(userRepository, roleRegistry, Duration.ofMinutes(1), 100,
+				new SimpleMeterRegistry());
+	}
+
+	@Test
+	void answersRepeatLookupsFromTheIndex() {
+		when(userRepository.findAuthorizationRows(anyCollection())).thenReturn(List.of(row(1L, true, "ROLE_USER")));
+
+		assertThat(index.isAuthorized(1L, "ROLE_USER")).isTrue();
+		assertThat(index.isAuthorized(1L, "ROLE_USER")).isTrue();
+		assertThat(index.isAuthorized(1L, "ROLE_ADMIN")).isFalse();
+
+		verify(userRepository, times(1)).findAuthorizationRows(anyCollection());
+	}
+
+	@Test
+	void dropsRowsReadBeforeAConcurrentEviction() {
+		AtomicBoolean disabled = new AtomicBoolean();
+		when(userRepository.findAuthorizationRows(anyCollection())).thenAnswer(invocation -> {
+			if (disabled.get()) {
+				return List.of(row(1L, false, "ROLE_USER"));
+			}
+			// The user is disabled and committed after this load read its rows
+			disabled.set(true);
+			index.evict(1L);
+			return List.of(row(1L, true, "ROLE_USER"));
+		});
+
+		index.isAuthorized(1L, "ROLE_USER");
+
+		assertThat(index.isAuthorized(1L, "ROLE_USER")).isFalse();
+		verify(userRepository, times(2)).findAuthorizationRows(anyCollection());
+	}
+
+	private static UserRepository.AuthorizationRow row(Long id, boolean enabled, String role) {
+		return new UserRepository.AuthorizationRow() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Boolean getEnabled() {
+				return enabled;
+			}
+
+			@Override
+			public String getRole() {
+				return role;
+			}
+		};
+	}
+}
@@ -0,0 +1,95 @@
+package com.foodDelivery.userService.serviceImplementation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.foodDelivery.userService.dto.UserFilter;
+import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.modal.User;
+import com.foodDelivery.userService.repository.RoleRepository;
+import com.foodDelivery.userService.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The export clears the persistence context every few hundred users while it scrolls through a roles fetch join;
+ * no user may lose roles across those batch boundaries.
+ */
+@DataJpaTest(properties = {
+		"spring.flyway.enabled=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"USER_CACHE_ENABLED=false"
+})
+class UserExportTest {
+
+	// More than two export batches, ending part-way through the third
+	private static final int USERS = 1_234;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+	@Test
+	void everyExportedLineCarriesAllOfItsUsersRoles() throws Exception {
+		Map<String, Set<String>> expected = seed();
+		UserServiceImpl userService = new UserServiceImpl(userRepository, null, null, null, null, null, null,
+				entityManager, objectMapper);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		userService.exportUsers(new UserFilter(), out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(USERS);
+		Map<String, Set<String>> exported = new HashMap<>();
+		for (String line : lines) {
+			JsonNode user = objectMapper.readTree(line);
+			Set<String> roles = new HashSet<>();
+			user.get("roles").forEach(role -> roles.add(role.asText()));
+			exported.put(user.get("username").asText(), roles);
+		}
+		assertThat(exported).isEqualTo(expected);
+	}
+
+	// Users hold one to three roles, so role rows per user vary across the scroll
+	private Map<String, Set<String>> seed() {
+		List<Role> roles = new ArrayList<>();
+		for (String name : List.of("ROLE_CUSTOMER", "ROLE_DRIVER", "ROLE_ADMIN")) {
+			roles.add(roleRepository.save(new Role(null, name)));
+		}
+		Map<String, Set<String>> expected = new HashMap<>();
+		for (int i = 0; i < USERS; i++) {
+			User user = new User();
+			user.setUsername("user" + i);
+			user.setEmail("user" + i + "@example.com");
+			user.setPassword("secret");
+			user.setIdentificationNumber("id" + i);
+			user.setRoles(new HashSet<>(roles.subList(0, 1 + i % roles.size())));
+			entityManager.persist(user);
+			expected.put(user.getUsername(), user.getRoles().stream().map(Role::getName).collect(Collectors.toSet()));
+		}
+		entityManager.flush();
+		entityManager.clear();
+		return expected;
+	}
+}
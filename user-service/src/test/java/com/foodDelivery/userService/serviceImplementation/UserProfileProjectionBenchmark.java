@@ -0,0 +1,134 @@
+package com.foodDelivery.userService.serviceImplementation;
+
+import com.foodDelivery.userService.dto.UserProfileResponse;
+import com.foodDelivery.userService.dto.UserProfileView;
+import com.foodDelivery.userService.modal.Role;
+import com.foodDelivery.userService.modal.User;
+import com.foodDelivery.userService.repository.RoleRepository;
+import com.foodDelivery.userService.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one profile lookup costs: loading the {@link User} entity (roles included) and copying it with
+ * {@code UserServiceImpl.mapToUserProfileResponse}, against the {@link UserProfileView} projection that reads
+ * the columns and the aggregated role names in one query. Runs against H2 with the second-level cache off, so
+ * both sides go to the database on every call.
+ * Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args="UserProfileProjectionBenchmark -prof gc"};
+ * {@code gc.alloc.rate.norm} is the allocation per lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserProfileProjectionBenchmark {
+
+	private static final int USERS = 100;
+
+	private ConfigurableApplicationContext context;
+	private UserRepository userRepository;
+	private TransactionTemplate readOnly;
+	private UserServiceImpl userService;
+	private Method mapToUserProfileResponse;
+	private Long userId;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(PersistenceConfiguration.class)
+				.web(WebApplicationType.NONE)
+				// Arguments, so they win over application.properties
+				.run(
+						"--spring.datasource.url=jdbc:h2:mem:profiles;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--spring.jpa.show-sql=false",
+						"--spring.jpa.properties.hibernate.generate_statistics=false",
+						"--USER_CACHE_ENABLED=false",
+						"--logging.level.root=WARN",
+						"--logging.level.org.hibernate.SQL=WARN",
+						"--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+		userRepository = context.getBean(UserRepository.class);
+		readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		readOnly.setReadOnly(true);
+
+		RoleRepository roleRepository = context.getBean(RoleRepository.class);
+		Role customer = roleRepository.save(new Role(null, "ROLE_CUSTOMER"));
+		Role driver = roleRepository.save(new Role(null, "ROLE_DRIVER"));
+		for (int i = 0; i < USERS; i++) {
+			User user = new User();
+			user.setUsername("user" + i);
+			user.setEmail("user" + i + "@example.com");
+			user.setPassword("secret");
+			user.setFirstName("First" + i);
+			user.setLastName("Last" + i);
+			user.setIdentificationNumber("id" + i);
+			user.setRoles(Set.of(customer, driver));
+			userId = userRepository.save(user).getId();
+		}
+
+		// Only the mapping is exercised, so the collaborators are not needed
+		userService = new UserServiceImpl(null, null, null, null, null, null, null, null, null);
+		mapToUserProfileResponse = ReflectionUtils.findMethod(UserServiceImpl.class, "mapToUserProfileResponse", User.class);
+		ReflectionUtils.makeAccessible(mapToUserProfileResponse);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public UserProfileResponse entityAndMapping() {
+		return readOnly.execute(status -> userRepository.findById(userId)
+				.map(user -> (UserProfileResponse) ReflectionUtils.invokeMethod(mapToUserProfileResponse, userService, user))
+				.orElseThrow());
+	}
+
+	@Benchmark
+	public UserProfileResponse projection() {
+		return readOnly.execute(status -> userRepository.findProfileById(userId)
+				.map(UserProfileView::toResponse)
+				.orElseThrow());
+	}
+
+	@SpringBootConfiguration
+	@ImportAutoConfiguration({
+			DataSourceAutoConfiguration.class,
+			HibernateJpaAutoConfiguration.class,
+			TransactionAutoConfiguration.class
+	})
+	@EnableJpaRepositories(basePackageClasses = UserRepository.class)
+	@EntityScan(basePackageClasses = User.class)
+	static class PersistenceConfiguration {
+	}
+}